@@ -4,12 +4,16 @@ import java.io.*;
 import java.util.*;
 
 import heuristika.ASPW;
+import heuristika.ClusterDecomposition;
 import heuristika.Greedy;
+import heuristika.GreedyEdge;
+import heuristika.SpanningTreeWalk;
 import metaheuristika.ACO;
 import metaheuristika.GA;
 import metaheuristika.MemeticGASA;
 import metaheuristika.SimulatedAnnealingPermutation;
 import utils.Graph;
+import utils.GraphCache;
 import utils.Result;
 
 /**
@@ -145,6 +149,10 @@ public class AlgorithmBenchmark {
         
         // Heuristike
         stats.put("Greedy NN", new AlgorithmStats("Greedy NN"));
+        stats.put("Greedy MS", new AlgorithmStats("Greedy MS"));
+        stats.put("Greedy Edge", new AlgorithmStats("Greedy Edge"));
+        stats.put("MST Walk", new AlgorithmStats("MST Walk"));
+        stats.put("Decomposition", new AlgorithmStats("Decomposition"));
         stats.put("ASPW", new AlgorithmStats("ASPW"));
         
         // Metaheuristike
@@ -169,7 +177,8 @@ public class AlgorithmBenchmark {
             try {
                 // Učitaj instancu
                 InstanceData data = loadInstance(filename);
-                Graph g = new Graph(data.matrix);
+                // Najkraći putevi iz cachea (ili izračunati ovdje), pa Floyd-Warshall ne ulazi u vrijeme prvog algoritma
+                Graph g = GraphCache.shared().graph(data.matrix);
                 double optimalCost = data.optimalCost;
                 
                 actualInstances++;
@@ -185,6 +194,18 @@ public class AlgorithmBenchmark {
                 // Greedy Nearest Neighbor
                 benchmarkAlgorithm(stats.get("Greedy NN"), g, optimalCost, () -> Greedy.solve(g));
                 
+                // Greedy iz svih početnih vrhova
+                benchmarkAlgorithm(stats.get("Greedy MS"), g, optimalCost, () -> Greedy.solveMultiStart(g));
+                
+                // Greedy-edge (najjeftiniji bridovi, stupanj <= 2)
+                benchmarkAlgorithm(stats.get("Greedy Edge"), g, optimalCost, () -> GreedyEdge.solve(g));
+                
+                // MST (double-tree / Christofides-stil)
+                benchmarkAlgorithm(stats.get("MST Walk"), g, optimalCost, () -> SpanningTreeWalk.solve(g));
+                
+                // Klasteri egzaktno (Held-Karp) pa spajanje
+                benchmarkAlgorithm(stats.get("Decomposition"), g, optimalCost, () -> ClusterDecomposition.solve(g));
+                
                 // ASPW
                 benchmarkAlgorithm(stats.get("ASPW"), g, optimalCost, () -> ASPW.solve(g));
                 
@@ -16,7 +16,7 @@ public class BruteAndMinPaths {
 	public static void main(String[] args) {
 		int n = 10; // Manji n za brute force
 		double[][] w = GraphGenerator.generateRandomGraph(n);
-		Graph g = new Graph(w);
+		Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
 		
 		System.out.println("Analiza permutacija za n=" + n);
 		
@@ -70,10 +70,10 @@ public class BruteAndMinPaths {
 		int current = 0;
 		
 		for (int next : vertices) {
-			cost += g.min_distances[current][next];
+			cost += g.minDistances().get(current, next);
 			current = next;
 		}
-		cost += g.min_distances[current][0];
+		cost += g.minDistances().get(current, 0);
 		
 		return cost;
 	}
@@ -1,5 +1,6 @@
 package analiza;
 
+import utils.DistanceMatrix;
 import utils.Graph;
 
 import java.io.*;
@@ -82,7 +83,7 @@ public class DatasetFormatter {
         }
         
         // 2. Kreiraj Graph za Floyd-Warshall
-        Graph g = new Graph(data.matrix);
+        Graph g = new Graph(data.matrix, DistanceMatrix.storageFor(data.matrix));
         
         // 3. Rekonstruiraj pravu šetnju s posrednim čvorovima
         List<Integer> fullWalk = reconstructFullWalk(data.optimalTour, g);
@@ -106,62 +107,8 @@ public class DatasetFormatter {
     }
     
     static List<Integer> reconstructFullWalk(List<Integer> tour, Graph g) {
-        List<Integer> fullWalk = new ArrayList<>();
-        
-        for (int i = 0; i < tour.size() - 1; i++) {
-            int from = tour.get(i);
-            int to = tour.get(i + 1);
-            
-            // Dodaj path od from do to
-            List<Integer> path = getShortestPath(from, to, g);
-            for (int j = 0; j < path.size() - 1; j++) {
-                fullWalk.add(path.get(j));
-            }
-        }
-        
-        fullWalk.add(tour.get(tour.size() - 1));
-        return fullWalk;
-    }
-    
-    static List<Integer> getShortestPath(int from, int to, Graph g) {
-        List<Integer> path = new ArrayList<>();
-        path.add(from);
-        
-        if (from == to) return path;
-        
-        int current = from;
-        int maxSteps = g.n * 2;
-        
-        while (current != to && maxSteps-- > 0) {
-            int nextNode = findNextHop(current, to, g);
-            if (nextNode == -1 || nextNode == current) {
-                path.add(to);
-                break;
-            }
-            path.add(nextNode);
-            current = nextNode;
-        }
-        
-        return path;
-    }
-    
-    static int findNextHop(int from, int to, Graph g) {
-        if (from == to) return -1;
-        
-        double targetDist = g.min_distances[from][to];
-        
-        for (int neighbor = 0; neighbor < g.n; neighbor++) {
-            if (neighbor == from) continue;
-            
-            double directEdge = g.distance_matrix[from][neighbor];
-            if (directEdge >= Double.MAX_VALUE / 4) continue;
-            
-            if (Math.abs(directEdge + g.min_distances[neighbor][to] - targetDist) < 1e-9) {
-                return neighbor;
-            }
-        }
-        
-        return to;
+        // Najkraći putevi između uzastopnih vrhova iz next matrice grafa
+        return g.expandWalk(tour);
     }
     
     static void writeInstance(File file, double[][] matrix, double optimalCost, 
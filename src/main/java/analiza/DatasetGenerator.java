@@ -40,7 +40,7 @@ public class DatasetGenerator {
                 try {
                     // Generate random graph
                     double[][] w = GraphGenerator.generateRandomGraph(n);
-                    Graph g = new Graph(w);
+                    Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
 
                     // Solve with ClosedWalkSolver
                     Result solution = ClosedWalkSolverParallel.solve(g);
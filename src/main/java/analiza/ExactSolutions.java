@@ -24,7 +24,7 @@ public class ExactSolutions {
             }
             
             double[][] w = GraphGenerator.generateRandomGraph(n);
-            Graph g = new Graph(w);
+            Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
             
             // Sequential Held-Karp
             long seqStart = System.nanoTime();
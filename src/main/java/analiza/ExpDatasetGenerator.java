@@ -61,7 +61,7 @@ public class ExpDatasetGenerator {
             try {
                 // Generiraj eksponencijalni graf
                 double[][] distances = GraphGenerator.generateRandomGraphLogNormal(n);
-                Graph g = new Graph(distances);
+                Graph g = new Graph(distances, DistanceMatrix.Storage.SYMMETRIC);
                 
                 // Riješi s parallel solverom
                 Result result = ClosedWalkSolverParallel.solve(g);
@@ -17,7 +17,7 @@ public class BruteForce {
         double[] best = {Double.POSITIVE_INFINITY};
         
         // Generiraj sve permutacije i pronađi najbolju cijenu
-        generatePermutations(g, vertices, 0, best);
+        generatePermutations(g.minDistances(), vertices, 0, best);
         
         return best[0];
     }
@@ -28,6 +28,7 @@ public class BruteForce {
      */
     public static double branchAndBound(Graph g) {
         int n = g.n;
+        DistanceMatrix minDist = g.minDistances();
         
         boolean[] visited = new boolean[n];
         visited[0] = true; // Start je uvijek 0
@@ -37,23 +38,23 @@ public class BruteForce {
         // Preračunaj lower bound info jednom
         double[][] minOutgoing = new double[n][2]; // 2 najmanja outgoing brida za svaki vrh
         for (int i = 0; i < n; i++) {
-            minOutgoing[i] = findTwoSmallest(g.min_distances[i], i);
+            minOutgoing[i] = findTwoSmallest(minDist, i);
         }
         
         // Pokreni rekurzivnu pretragu s pruningom
-        branchAndBoundRecursive(g, 0, 0.0, visited, 1, best, minOutgoing);
+        branchAndBoundRecursive(minDist, 0, 0.0, visited, 1, best, minOutgoing);
         
         return best[0];
     }
     
-    private static void branchAndBoundRecursive(Graph g, int current, double currentCost, 
+    private static void branchAndBoundRecursive(DistanceMatrix minDist, int current, double currentCost, 
                                                  boolean[] visited, int depth, double[] best,
                                                  double[][] minOutgoing) {
-        int n = g.n;
+        int n = minDist.size();
         
         // Bazni slučaj: svi vrhovi posjećeni
         if (depth == n) {
-            double totalCost = currentCost + g.min_distances[current][0];
+            double totalCost = currentCost + minDist.get(current, 0);
             if (totalCost < best[0]) {
                 best[0] = totalCost;
             }
@@ -61,7 +62,7 @@ public class BruteForce {
         }
         
         // PRUNING: Izračunaj donju granicu (lower bound)
-        double lowerBound = calculateLowerBound(g, current, currentCost, visited, minOutgoing);
+        double lowerBound = calculateLowerBound(minDist, current, currentCost, visited, minOutgoing);
         
         // Ako je lower bound već gori od najboljeg, odbaci ovu granu
         if (lowerBound >= best[0]) {
@@ -72,7 +73,7 @@ public class BruteForce {
         for (int next = 1; next < n; next++) {
             if (visited[next]) continue;
             
-            double edgeCost = g.min_distances[current][next];
+            double edgeCost = minDist.get(current, next);
             if (Double.isInfinite(edgeCost)) continue;
             
             double newCost = currentCost + edgeCost;
@@ -81,7 +82,7 @@ public class BruteForce {
             if (newCost >= best[0]) continue;
             
             visited[next] = true;
-            branchAndBoundRecursive(g, next, newCost, visited, depth + 1, best, minOutgoing);
+            branchAndBoundRecursive(minDist, next, newCost, visited, depth + 1, best, minOutgoing);
             visited[next] = false;
         }
     }
@@ -95,9 +96,9 @@ public class BruteForce {
      * 
      * ISPRAVLJENO: Stari algoritam je bio preoptimističan i odbacivao dobre grane!
      */
-    private static double calculateLowerBound(Graph g, int current, double currentCost, 
+    private static double calculateLowerBound(DistanceMatrix minDist, int current, double currentCost, 
                                                boolean[] visited, double[][] minOutgoing) {
-        int n = g.n;
+        int n = minDist.size();
         
         // Počnemo s trenutnim troškom
         double bound = currentCost;
@@ -110,7 +111,7 @@ public class BruteForce {
         
         // Ako nema više neposjećenih, samo dodaj povratak
         if (unvisitedCount == 0) {
-            return bound + g.min_distances[current][0];
+            return bound + minDist.get(current, 0);
         }
         
         // MST-based lower bound:
@@ -118,7 +119,7 @@ public class BruteForce {
         double minToCurrent = Double.POSITIVE_INFINITY;
         for (int i = 1; i < n; i++) {
             if (!visited[i]) {
-                minToCurrent = Math.min(minToCurrent, g.min_distances[current][i]);
+                minToCurrent = Math.min(minToCurrent, minDist.get(current, i));
             }
         }
         
@@ -132,7 +133,7 @@ public class BruteForce {
                 // Najmanji brid prema bilo kojem drugom čvoru (posjećenom ili neposjećenom)
                 for (int j = 0; j < n; j++) {
                     if (i != j) {
-                        minEdge = Math.min(minEdge, g.min_distances[i][j]);
+                        minEdge = Math.min(minEdge, minDist.get(i, j));
                     }
                 }
                 
@@ -145,7 +146,7 @@ public class BruteForce {
         double minToZero = Double.POSITIVE_INFINITY;
         for (int i = 1; i < n; i++) {
             if (!visited[i]) {
-                minToZero = Math.min(minToZero, g.min_distances[i][0]);
+                minToZero = Math.min(minToZero, minDist.get(i, 0));
             }
         }
         
@@ -157,30 +158,31 @@ public class BruteForce {
     }
     
     /**
-     * Nađi 2 najmanja elementa u nizu (osim dijagonale)
+     * Nađi 2 najmanja elementa u retku row (osim dijagonale)
      */
-    private static double[] findTwoSmallest(double[] arr, int skipIndex) {
+    private static double[] findTwoSmallest(DistanceMatrix d, int row) {
         double first = Double.POSITIVE_INFINITY;
         double second = Double.POSITIVE_INFINITY;
         
-        for (int i = 0; i < arr.length; i++) {
-            if (i == skipIndex) continue;
+        for (int i = 0; i < d.size(); i++) {
+            if (i == row) continue;
             
-            if (arr[i] < first) {
+            double value = d.get(row, i);
+            if (value < first) {
                 second = first;
-                first = arr[i];
-            } else if (arr[i] < second) {
-                second = arr[i];
+                first = value;
+            } else if (value < second) {
+                second = value;
             }
         }
         
         return new double[]{first, second};
     }
     
-    private static void generatePermutations(Graph g, List<Integer> vertices, int index, double[] best) {
+    private static void generatePermutations(DistanceMatrix minDist, List<Integer> vertices, int index, double[] best) {
         if (index == vertices.size()) {
             // Izračunaj cijenu za ovu permutaciju
-            double cost = calculateTourCost(g, vertices);
+            double cost = calculateTourCost(minDist, vertices);
             if (cost < best[0]) {
                 best[0] = cost;
             }
@@ -193,14 +195,14 @@ public class BruteForce {
             swap(vertices, i, index);
             
             // Rekurzivno generiraj permutacije za preostale elemente
-            generatePermutations(g, vertices, index + 1, best);
+            generatePermutations(minDist, vertices, index + 1, best);
             
             // Backtrack (swap natrag)
             swap(vertices, i, index);
         }
     }
     
-    private static double calculateTourCost(Graph g, List<Integer> vertices) {
+    private static double calculateTourCost(DistanceMatrix minDist, List<Integer> vertices) {
         double cost = 0.0;
         
         // Počinjemo od vrha 0
@@ -208,7 +210,7 @@ public class BruteForce {
         
         // Prolazimo kroz sve vrhove u permutaciji
         for (int next : vertices) {
-            cost += g.min_distances[current][next];
+            cost += minDist.get(current, next);
             if (Double.isInfinite(cost)) {
                 return Double.POSITIVE_INFINITY; // Nema puta
             }
@@ -216,7 +218,7 @@ public class BruteForce {
         }
         
         // Dodaj cost od zadnjeg vrha natrag do 0
-        cost += g.min_distances[current][0];
+        cost += minDist.get(current, 0);
         
         return cost;
     }
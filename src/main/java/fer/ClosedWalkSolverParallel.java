@@ -8,7 +8,7 @@ public class ClosedWalkSolverParallel {
 
     public static Result solve(Graph g) {
         final int n = g.n;
-        final double[][] minDistances = g.min_distances;
+        final DistanceMatrix minDistances = g.minDistances();
         
         if (n == 0) return new Result(0.0, new ArrayList<>());
         if (n == 1) {
@@ -66,7 +66,7 @@ public class ClosedWalkSolverParallel {
                     // Tražimo najbolji prethodni vrh k
                     for (int k = 0; k < n; k++) {
                         if ((previousMask & (1 << k)) > 0) {
-                            double cost = dp[previousMask][k] + minDistances[k][j];
+                            double cost = dp[previousMask][k] + minDistances.get(k, j);
                             
                             // Nema race condition-a jer samo ova dretva piše u dp[mask][j]
                             if (cost < dp[mask][j]) {
@@ -87,7 +87,7 @@ public class ClosedWalkSolverParallel {
         int lastCity = 0;
         
         for (int j = 1; j < n; j++) {
-            double cost = dp[fullMask][j] + minDistances[j][0];
+            double cost = dp[fullMask][j] + minDistances.get(j, 0);
             if (cost < minimumCost) {
                 minimumCost = cost;
                 lastCity = j;
@@ -0,0 +1,105 @@
+package fer;
+
+import java.util.Arrays;
+import utils.*;
+
+/**
+ * Held-Karp DP za najkraći put sa zadanim krajevima kroz zadani skup vrhova.
+ *
+ * Put kreće u start, posjećuje sve vrhove iz inner (bilo kojim redom) i završava u end;
+ * start == end daje ciklus. Udaljenosti ne moraju biti simetrične.
+ *
+ * - dp[mask][j] = najmanji trošak od start kroz točno vrhove iz maske, završno u inner[j]
+ * - tablice su ravna polja (mask * m + j), roditelj je byte, pa je memorija
+ *   2^m * m * 9 bajtova; lokalne udaljenosti se prepisuju u m x m polje
+ *
+ * Koriste ga {@link ClosedWalkSolver} (cijeli graf) i lokalna poboljšanja nad
+ * prozorom ture (heuristika.WindowedHeldKarp).
+ */
+public class HeldKarpPath {
+
+    // 2^26 * 26 je još unutar int indeksa
+    public static final int MAX_INNER = 26;
+
+    private static final double INFINITY = Double.MAX_VALUE / 4;
+
+    /**
+     * @param d Udaljenosti (najčešće min_distances)
+     * @param start Početni vrh puta
+     * @param inner Vrhovi koje put mora posjetiti (bez start i end)
+     * @param end Završni vrh puta
+     * @param order Izlaz: vrhovi iz inner redom kojim ih optimalni put posjećuje
+     * @return Cijena puta, Double.POSITIVE_INFINITY ako put ne postoji
+     */
+    public static double solve(DistanceMatrix d, int start, int[] inner, int end, int[] order) {
+        final int m = inner.length;
+        if (m > MAX_INNER) {
+            throw new IllegalArgumentException("Too many vertices for Held-Karp: " + m + " > " + MAX_INNER);
+        }
+        if (m == 0) {
+            return d.get(start, end);
+        }
+
+        double[] local = new double[m * m];
+        for (int j = 0; j < m; j++) {
+            for (int k = 0; k < m; k++) {
+                local[j * m + k] = d.get(inner[j], inner[k]);
+            }
+        }
+
+        final int subsetCount = 1 << m;
+        final int fullMask = subsetCount - 1;
+        double[] dp = new double[subsetCount * m];
+        byte[] parents = new byte[subsetCount * m];
+        Arrays.fill(dp, INFINITY);
+
+        // Bazni slučaj: start -> inner[j]
+        for (int j = 0; j < m; j++) {
+            dp[(1 << j) * m + j] = d.get(start, inner[j]);
+        }
+
+        // Maske rastu, pa je dp[mask] gotov prije nego se iz njega proširuje.
+        // Bitovi maske obilaze se preko numberOfTrailingZeros, bez grananja po vrhovima
+        for (int mask = 1; mask < fullMask; mask++) {
+            for (int js = mask; js != 0; js &= js - 1) {
+                final int j = Integer.numberOfTrailingZeros(js);
+                final double base = dp[mask * m + j];
+                if (base >= INFINITY) continue;
+
+                for (int ks = fullMask & ~mask; ks != 0; ks &= ks - 1) {
+                    final int k = Integer.numberOfTrailingZeros(ks);
+                    final int next = (mask | (1 << k)) * m + k;
+                    final double cost = base + local[j * m + k];
+                    if (cost < dp[next]) {
+                        dp[next] = cost;
+                        parents[next] = (byte) j;
+                    }
+                }
+            }
+        }
+
+        double minimumCost = INFINITY;
+        int last = -1;
+        for (int j = 0; j < m; j++) {
+            final double cost = dp[fullMask * m + j] + d.get(inner[j], end);
+            if (cost < minimumCost) {
+                minimumCost = cost;
+                last = j;
+            }
+        }
+        if (last < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        // Rekonstrukcija unatrag od zadnjeg vrha
+        int mask = fullMask;
+        int current = last;
+        for (int i = m - 1; i >= 0; i--) {
+            order[i] = inner[current];
+            final int parent = parents[mask * m + current];
+            mask ^= 1 << current;
+            current = parent;
+        }
+        return minimumCost;
+    }
+}
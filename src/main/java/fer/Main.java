@@ -41,7 +41,7 @@ public class Main {
 	    		System.out.println("Iteracija: " + i);
 	        
 	    	double[][] w = GraphGenerator.generateMetricGraph(n);
-	        Graph g = new Graph(w);
+	        Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
 	        
 	        // --- TSP solver timing ---
 	        long tspStart = System.nanoTime();
@@ -62,14 +62,14 @@ public class Main {
 	        Walk walk = MyAlg.bfsWalk(g);
 	        long myAlgEnd = System.nanoTime();
 	        totalMyAlgTime += (myAlgEnd - myAlgStart);
-	        double myAlgCost = round(walk.cost + g.min_distances[walk.getHead()][0]);
+	        double myAlgCost = round(walk.cost + g.minDistances().get(walk.getHead(), 0));
 	        
 	        // --- MyAlgOptimized (Parallel BFS) timing ---
 	        long myAlgOptStart = System.nanoTime();
 	        Walk walkOpt = MyAlgOptimized.bfsWalkParallel(g);
 	        long myAlgOptEnd = System.nanoTime();
 	        totalMyAlgOptTime += (myAlgOptEnd - myAlgOptStart);
-	        double myAlgOptCost = round(walkOpt.cost + g.min_distances[walkOpt.getHead()][0]);
+	        double myAlgOptCost = round(walkOpt.cost + g.minDistances().get(walkOpt.getHead(), 0));
 	        
 	        // --- Held-Karp DP walk ---
 	        long heldKarpStart = System.nanoTime();
@@ -1,5 +1,6 @@
 package fer;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
@@ -7,28 +8,40 @@ import java.util.PriorityQueue;
 import utils.*;
 public class MyAlg {
 	
+	// Implementacija otvorene liste (open list) za bfsWalk
+	public enum OpenList {
+		PRIORITY_QUEUE,	// PriorityQueue<Walk> s komparatorom, O(log N)
+		RADIX_HEAP		// monotona radix hrpa nad int handleovima, amortizirano O(1) push
+	}
+	
 	public static Walk bfsWalk(Graph g) {
+		return bfsWalk(g, OpenList.PRIORITY_QUEUE);
+	}
+	
+	public static Walk bfsWalk(Graph g, OpenList openList) {
 		
 		int n = g.n;
 		int max = 2*n -2 + 1;
+		DistanceMatrix minDist = g.minDistances();
+		DistanceMatrix weights = g.distances();
 		
 		double bestCost = Double.POSITIVE_INFINITY;
 		Walk bestWalk = null;
 		
 		Map<Long, Double> visited = new HashMap<>();
 		
-		PriorityQueue<Walk> walks = new PriorityQueue<>(
-			    Comparator.comparingDouble(w -> w.cost)
-			);
+		Frontier walks = openList == OpenList.RADIX_HEAP
+				? new RadixFrontier()
+				: new QueueFrontier();
 	
-		walks.add(new Walk(0, 0));
+		walks.add(new Walk(0, 0, n));
 		
 		while(!walks.isEmpty()) {
 			
 			Walk currentWalk = walks.poll();
 			//System.out.println(currentWalk + " , "+ walks.size() + " , " + bestCost);
 			
-			double bestPossibleCost =  currentWalk.cost + g.min_distances[currentWalk.getHead()][0];
+			double bestPossibleCost =  currentWalk.cost + minDist.get(currentWalk.getHead(), 0);
 			if(bestPossibleCost >= bestCost || currentWalk.length >= max) continue;
 			
 			Double prevCost = visited.get(currentWalk.state);
@@ -45,7 +58,7 @@ public class MyAlg {
 			}
 			
 			for(int hop : g.getHops(currentWalk.getHead())) {
-				double newCost = currentWalk.cost + g.distance_matrix[currentWalk.getHead()][hop];
+				double newCost = currentWalk.cost + weights.get(currentWalk.getHead(), hop);
 				if(newCost >= bestCost) continue;
 				
 				walks.add(new Walk(currentWalk, hop, newCost));
@@ -55,6 +68,54 @@ public class MyAlg {
 		return bestWalk;
 	}
 	
+	private interface Frontier {
+		void add(Walk w);
+		Walk poll();
+		boolean isEmpty();
+	}
+	
+	private static class QueueFrontier implements Frontier {
+		private final PriorityQueue<Walk> queue = new PriorityQueue<>(
+			    Comparator.comparingDouble(w -> w.cost)
+			);
+		
+		public void add(Walk w) { queue.add(w); }
+		public Walk poll() { return queue.poll(); }
+		public boolean isEmpty() { return queue.isEmpty(); }
+	}
+	
+	// Radix hrpa radi s int handleovima; šetnje žive u polju sa slobodnom listom
+	// pa se slotovi izvađenih šetnji ponovno koriste.
+	private static class RadixFrontier implements Frontier {
+		private final RadixHeap heap = new RadixHeap();
+		private Walk[] slots = new Walk[1024];
+		private int[] free = new int[1024];
+		private int freeCount = 0;
+		private int used = 0;
+		
+		public void add(Walk w) {
+			int handle;
+			if(freeCount > 0) {
+				handle = free[--freeCount];
+			} else {
+				if(used == slots.length) slots = Arrays.copyOf(slots, used * 2);
+				handle = used++;
+			}
+			slots[handle] = w;
+			heap.push(handle, w.cost);
+		}
+		
+		public Walk poll() {
+			int handle = heap.pop();
+			Walk w = slots[handle];
+			slots[handle] = null;
+			if(freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+			free[freeCount++] = handle;
+			return w;
+		}
+		
+		public boolean isEmpty() { return heap.isEmpty(); }
+	}
 	
 
 }
@@ -0,0 +1,112 @@
+package fer;
+
+import utils.*;
+
+/**
+ * IDA* varijanta MyAlg algoritma s ograničenom memorijom.
+ *
+ * MyAlg drži sve otvorene šetnje u PriorityQueue i sva posjećena stanja u HashMap,
+ * pa memorija raste bez granice. Ovdje se pretraga radi u dubinu s pragom
+ * f = cost + h, a jedina struktura koja raste s brojem stanja je
+ * {@link TranspositionTable} čiji kapacitet (nodeBudget) zadaje pozivatelj.
+ *
+ * Heuristika: max po neposjećenim v od d(head, v) + d(v, 0) - moramo još doći
+ * do svakog neposjećenog vrha i vratiti se u 0, pa je procjena dopustiva.
+ */
+public class MyAlgBounded {
+
+    // Prag raste barem ovoliko po iteraciji - s realnim težinama bi inače
+    // svaka iteracija pomaknula prag za samo jedan čvor.
+    private static final double THRESHOLD_GROWTH = 1.02;
+
+    public static Walk idaWalk(Graph g) {
+        return idaWalk(g, 1 << 20);
+    }
+
+    /**
+     * @param g Graf
+     * @param nodeBudget Maksimalan broj stanja u transpozicijskoj tablici
+     * @return Optimalna šetnja (bez završnog povratka u 0, kao i MyAlg.bfsWalk)
+     */
+    public static Walk idaWalk(Graph g, int nodeBudget) {
+        Search search = new Search(g, new TranspositionTable(nodeBudget));
+        Walk root = new Walk(0, 0, g.n);
+
+        double threshold = search.heuristic(root);
+        while (true) {
+            search.nextThreshold = Double.POSITIVE_INFINITY;
+            search.table.clear();
+            search.dfs(root, threshold);
+
+            // Ništa odrezano nije jeftinije od nađenog rješenja -> optimum
+            if (search.bestWalk != null && search.bestCost <= search.nextThreshold) {
+                return search.bestWalk;
+            }
+            if (search.nextThreshold == Double.POSITIVE_INFINITY) {
+                return search.bestWalk;
+            }
+            threshold = Math.max(search.nextThreshold, threshold * THRESHOLD_GROWTH);
+        }
+    }
+
+    private static class Search {
+        final Graph g;
+        final int n;
+        final int maxLen;
+        final DistanceMatrix minDist;
+        final DistanceMatrix weights;
+        final TranspositionTable table;
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        Walk bestWalk = null;
+        double nextThreshold;
+
+        Search(Graph g, TranspositionTable table) {
+            this.g = g;
+            this.n = g.n;
+            this.maxLen = 2 * n - 2 + 1;
+            this.minDist = g.minDistances();
+            this.weights = g.distances();
+            this.table = table;
+        }
+
+        double heuristic(Walk walk) {
+            int head = walk.getHead();
+            double h = minDist.get(head, 0);
+            for (int v = 1; v < n; v++) {
+                if (!walk.isVisited(v)) {
+                    h = Math.max(h, minDist.get(head, v) + minDist.get(v, 0));
+                }
+            }
+            return h;
+        }
+
+        void dfs(Walk walk, double threshold) {
+            int head = walk.getHead();
+            double f = walk.cost + heuristic(walk);
+
+            if (f >= bestCost || walk.length >= maxLen) return;
+            if (f > threshold) {
+                if (f < nextThreshold) nextThreshold = f;
+                return;
+            }
+
+            double prevCost = table.get(walk.state);
+            if (!Double.isNaN(prevCost) && prevCost <= walk.cost) return;
+            table.put(walk.state, walk.cost);
+
+            if (walk.isWalkDone(n)) {
+                bestCost = walk.cost + minDist.get(head, 0);
+                bestWalk = walk;
+                return;
+            }
+
+            for (int hop : g.getHops(head)) {
+                double newCost = walk.cost + weights.get(head, hop);
+                if (newCost >= bestCost) continue;
+
+                dfs(new Walk(walk, hop, newCost), threshold);
+            }
+        }
+    }
+}
@@ -20,10 +20,14 @@ public class MyAlgOptimized {
         final int n;
         final int maxLen;
         final Graph g;
+        final DistanceMatrix distances;
+        final DistanceMatrix minDistances;
         final double[] minOutgoing; // Optimization: Precomputed min outgoing edge for each node
 
         SharedState(Graph g) {
             this.g = g;
+            this.distances = g.distances();
+            this.minDistances = g.minDistances();
             this.n = g.n;
             this.maxLen = 2 * n - 2 + 1;
             
@@ -33,7 +37,7 @@ public class MyAlgOptimized {
                 double min = Double.POSITIVE_INFINITY;
                 for (int j = 0; j < n; j++) {
                     if (i != j) {
-                        min = Math.min(min, g.distance_matrix[i][j]);
+                        min = Math.min(min, distances.get(i, j));
                     }
                 }
                 this.minOutgoing[i] = min;
@@ -54,7 +58,7 @@ public class MyAlgOptimized {
         if (g.n < 10) numThreads = 2;
         
         SharedState state = new SharedState(g);
-        state.queue.add(new Walk(0, 0));
+        state.queue.add(new Walk(0, 0, g.n));
 
         ExecutorService executor = Executors.newFixedThreadPool(numThreads);
 
@@ -113,23 +117,24 @@ public class MyAlgOptimized {
 
     private static void processWalk(Walk currentWalk, SharedState state) {
         Graph g = state.g;
+        DistanceMatrix distances = state.distances;
+        DistanceMatrix minDistances = state.minDistances;
         int n = state.n;
         int head = currentWalk.getHead();
 
         // --- Optimization: Improved Heuristic Pruning ---
         // Basic lower bound: current cost + shortest path to 0
-        double heuristic = g.min_distances[head][0];
+        double heuristic = minDistances.get(head, 0);
         
         // Advanced lower bound: sum of min outgoing edges for all unvisited nodes
         // We must leave every unvisited node at least once.
         double unvisitedSum = 0;
-        int visitedBits = currentWalk.getVisitedBits();
         
         // Check if we can prune based on unvisited nodes
         // Iterate through all nodes to check if they are visited
         // This loop is O(N), which is small (N <= 20 usually)
         for (int i = 1; i < n; i++) { // Skip 0 as it's start/end
-            if ((visitedBits & (1 << i)) == 0) {
+            if (!currentWalk.isVisited(i)) {
                 unvisitedSum += state.minOutgoing[i];
             }
         }
@@ -158,14 +163,14 @@ public class MyAlgOptimized {
         // --- Check Goal ---
         if (currentWalk.isWalkDone(n)) {
             // We are done visiting all nodes. Now we just need to return to 0.
-            // The cost to return is g.min_distances[head][0] (which might involve multiple hops)
+            // The cost to return is g.minDistances().get(head, 0) (which might involve multiple hops)
             // But Walk object represents actual hops.
             // If we are at a node where we can jump to 0 directly or via path.
             // The problem asks for a Walk.
             // If isWalkDone is true, it means we visited all bits.
             // We still need to close the loop to 0.
-            // The cost to close is g.min_distances[head][0].
-            double finalCost = currentWalk.cost + g.min_distances[head][0];
+            // The cost to close is g.minDistances().get(head, 0).
+            double finalCost = currentWalk.cost + minDistances.get(head, 0);
             state.updateBest(currentWalk, finalCost);
             return; 
         }
@@ -177,7 +182,7 @@ public class MyAlgOptimized {
         // Just add them.
         
         for (int hop : g.getHops(head)) {
-            double newCost = currentWalk.cost + g.distance_matrix[head][hop];
+            double newCost = currentWalk.cost + distances.get(head, hop);
             if (newCost >= state.bestCost) continue;
 
             state.queue.add(new Walk(currentWalk, hop, newCost));
@@ -0,0 +1,100 @@
+package fer;
+
+import java.util.Arrays;
+
+/**
+ * Monotona radix hrpa s int handleovima i nenegativnim double ključevima.
+ *
+ * Za nenegativne double vrijednosti poredak IEEE-754 bitova (kao long) jednak je
+ * poretku samih vrijednosti, pa se ključ sprema kao long bez kvantizacije.
+ * Element s ključem k ide u kanticu određenu najvišim bitom u kojem se k razlikuje
+ * od zadnjeg izvađenog minimuma; svaki element se tako premješta najviše 64 puta,
+ * a push je O(1) bez boxinga i komparatora.
+ *
+ * Ključevi ubačeni nakon pop() ne smiju biti manji od zadnjeg izvađenog ključa -
+ * to vrijedi u MyAlg jer su težine bridova nenegativne.
+ */
+class RadixHeap {
+
+    private static final int BUCKETS = 65;
+
+    private final long[][] keys = new long[BUCKETS][];
+    private final int[][] handles = new int[BUCKETS][];
+    private final int[] sizes = new int[BUCKETS];
+    private long last = 0;
+    private int size = 0;
+
+    RadixHeap() {
+        for (int b = 0; b < BUCKETS; b++) {
+            keys[b] = new long[4];
+            handles[b] = new int[4];
+        }
+    }
+
+    void push(int handle, double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits < last) {
+            throw new IllegalArgumentException("Key " + key + " is smaller than last popped key " + lastKey());
+        }
+        append(bucket(bits), bits, handle);
+        size++;
+    }
+
+    /**
+     * Izvadi handle s najmanjim ključem.
+     */
+    int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("RadixHeap is empty");
+        }
+        if (sizes[0] == 0) {
+            int b = 1;
+            while (sizes[b] == 0) b++;
+
+            long[] bKeys = keys[b];
+            int[] bHandles = handles[b];
+            int bSize = sizes[b];
+
+            long min = bKeys[0];
+            for (int i = 1; i < bSize; i++) {
+                if (bKeys[i] < min) min = bKeys[i];
+            }
+            last = min;
+
+            // Svi elementi iz kantice b padaju u strogo niže kantice
+            sizes[b] = 0;
+            for (int i = 0; i < bSize; i++) {
+                append(bucket(bKeys[i]), bKeys[i], bHandles[i]);
+            }
+        }
+        size--;
+        return handles[0][--sizes[0]];
+    }
+
+    double lastKey() {
+        return Double.longBitsToDouble(last);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int bucket(long bits) {
+        return bits == last ? 0 : 64 - Long.numberOfLeadingZeros(bits ^ last);
+    }
+
+    private void append(int b, long key, int handle) {
+        int s = sizes[b];
+        if (s == keys[b].length) {
+            keys[b] = Arrays.copyOf(keys[b], s * 2);
+            handles[b] = Arrays.copyOf(handles[b], s * 2);
+        }
+        keys[b][s] = key;
+        handles[b][s] = handle;
+        sizes[b] = s + 1;
+    }
+}
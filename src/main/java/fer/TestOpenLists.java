@@ -0,0 +1,57 @@
+package fer;
+import utils.*;
+public class TestOpenLists {
+
+    static double round(double x) {
+        return Math.round(x * 1e12) / 1e12;
+    }
+
+    public static void main(String[] args) {
+        int n = 13;
+        int iter = 10;
+
+        System.out.println("Starting open list benchmark for MyAlg (N=" + n + ", Iterations=" + iter + ")...");
+
+        long totalQueueTime = 0;
+        long totalRadixTime = 0;
+
+        double totalQueueCost = 0;
+        double totalRadixCost = 0;
+
+        int mismatches = 0;
+        for (int i = 0; i < iter; i++) {
+            double[][] w = GraphGenerator.generateRandomGraph(n);
+            Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
+
+            // --- PriorityQueue<Walk> ---
+            long queueStart = System.nanoTime();
+            Walk queueWalk = MyAlg.bfsWalk(g, MyAlg.OpenList.PRIORITY_QUEUE);
+            long queueEnd = System.nanoTime();
+            totalQueueTime += (queueEnd - queueStart);
+            double queueCost = round(queueWalk.cost + g.minDistances().get(queueWalk.getHead(), 0));
+            totalQueueCost += queueCost;
+
+            // --- Radix heap ---
+            long radixStart = System.nanoTime();
+            Walk radixWalk = MyAlg.bfsWalk(g, MyAlg.OpenList.RADIX_HEAP);
+            long radixEnd = System.nanoTime();
+            totalRadixTime += (radixEnd - radixStart);
+            double radixCost = round(radixWalk.cost + g.minDistances().get(radixWalk.getHead(), 0));
+            totalRadixCost += radixCost;
+
+            if (Math.abs(queueCost - radixCost) > 1e-9) {
+                mismatches++;
+            }
+        }
+
+        System.out.println("\nCost mismatches between open lists: " + mismatches + " out of " + iter);
+
+        System.out.println("\n--- Open List Timing (N=" + n + ") ---");
+        System.out.println("Average PriorityQueue time (ms): " + (totalQueueTime / 1e6) / iter);
+        System.out.println("Average Radix heap time (ms):    " + (totalRadixTime / 1e6) / iter);
+
+        System.out.println("\n--- Average Costs ---");
+        System.out.println("Average PriorityQueue cost: " + (totalQueueCost / iter));
+        System.out.println("Average Radix heap cost:    " + (totalRadixCost / iter));
+    }
+}
@@ -25,7 +25,7 @@ public class TestParallelSolvers {
             }
 
             double[][] w = GraphGenerator.generateRandomGraph(n);
-            Graph g = new Graph(w);
+            Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
 
             // --- TSP Solver Parallel ---
             long tspParStart = System.nanoTime();
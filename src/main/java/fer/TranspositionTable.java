@@ -0,0 +1,97 @@
+package fer;
+
+import java.util.Arrays;
+
+/**
+ * Transpozicijska tablica fiksne veličine za stanja iz {@link Walk}.
+ *
+ * Za razliku od {@code HashMap<Long, Double>} u MyAlg, tablica nikad ne raste:
+ * kapacitet se zada unaprijed, a kad je slot zauzet drugim stanjem, stari unos
+ * se prepiše. Izgubljeni unos znači samo slabije odsijecanje, nikad krivi rezultat.
+ */
+class TranspositionTable {
+
+    private static final int PROBES = 4;
+
+    private final long[] keys;
+    private final double[] costs; // NaN = prazan slot
+    private final int mask;
+    private int size;
+
+    TranspositionTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int slots = Integer.highestOneBit(Math.max(PROBES, capacity - 1) << 1);
+        if (slots <= 0) slots = 1 << 30;
+        this.keys = new long[slots];
+        this.costs = new double[slots];
+        this.mask = slots - 1;
+        clear();
+    }
+
+    /**
+     * @return najmanji zapamćeni trošak za stanje ili NaN ako stanje nije u tablici
+     */
+    double get(long key) {
+        int idx = index(key);
+        for (int p = 0; p < PROBES; p++) {
+            int slot = (idx + p) & mask;
+            double cost = costs[slot];
+            if (Double.isNaN(cost)) return Double.NaN;
+            if (keys[slot] == key) return cost;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Zapamti trošak za stanje. Ako su svi probni slotovi zauzeti,
+     * prepisuje se onaj s najvećim troškom (najmanje koristan za odsijecanje).
+     */
+    void put(long key, double cost) {
+        int idx = index(key);
+        int victim = idx;
+        double victimCost = -1;
+        for (int p = 0; p < PROBES; p++) {
+            int slot = (idx + p) & mask;
+            double old = costs[slot];
+            if (Double.isNaN(old)) {
+                keys[slot] = key;
+                costs[slot] = cost;
+                size++;
+                return;
+            }
+            if (keys[slot] == key) {
+                costs[slot] = cost;
+                return;
+            }
+            if (old > victimCost) {
+                victimCost = old;
+                victim = slot;
+            }
+        }
+        keys[victim] = key;
+        costs[victim] = cost;
+    }
+
+    void clear() {
+        Arrays.fill(costs, Double.NaN);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    private int index(long key) {
+        // SplitMix64 finalizer - stanja se razlikuju uglavnom u visokim bitovima
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        key = key ^ (key >>> 31);
+        return (int) key & mask;
+    }
+}
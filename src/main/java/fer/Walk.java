@@ -6,42 +6,111 @@ import java.util.List;
 
 public class Walk {
 	
-  	long state;       // gornjih 48 bitova: visitedBits, donjih 16 bitova: head
+  	// Do 48 vrhova state je točan ključ: gornjih 48 bitova visitedBits, donjih 16 bitova head.
+  	// Za veće grafove visited bitovi su u polju 'visited', a state je 64-bitni
+  	// Zobrist hash para (visited, head) - koristi se samo kao ključ zatvorene tablice.
+  	public static final int MAX_PACKED_VERTICES = 48;
+
+  	long state;
+    long[] visited;   // null ako je graf <= 48 vrhova (bitovi su u state)
+    int head;
     Walk parent;      // prethodni walk (za rekonstrukciju puta)
     public double cost;
     int length;
 
-    // Konstruktor za početni walk (samo vrh 0)
+    // Konstruktor za početni walk (samo vrh 0), graf do 48 vrhova
     public Walk(int head, double cost) {
         this.state = (1L << (16 + head)) | head; // postavi bit za head u visitedBits i spremi head
+        this.head = head;
         this.parent = null;
         this.cost = cost;
         this.length = 1;
     }
 
+    // Konstruktor za početni walk koji bira kodiranje prema broju vrhova n
+    public Walk(int head, double cost, int n) {
+        this(head, cost);
+        if (n > MAX_PACKED_VERTICES) {
+            this.visited = new long[(n + 63) >>> 6];
+            this.visited[head >>> 6] |= 1L << head;
+            this.state = vertexKey(head) ^ headKey(head);
+        }
+    }
+
     // Konstruktor za proširenje postojećeg walk-a
     public Walk(Walk parent, int newHead, double cost) {
         this.parent = parent;
+        this.head = newHead;
         this.cost = cost;
         this.length = parent.length + 1;
         
-        // Inkrementalno ažuriraj state: dodaj novi bit i promijeni head
-        long visitedBits = (parent.state >>> 16) | (1L << newHead); // dodaj novi vrh u visited
-        this.state = (visitedBits << 16) | newHead;
+        if (parent.visited == null) {
+            // Inkrementalno ažuriraj state: dodaj novi bit i promijeni head
+            long visitedBits = (parent.state >>> 16) | (1L << newHead); // dodaj novi vrh u visited
+            this.state = (visitedBits << 16) | newHead;
+        } else {
+            long visitedHash = parent.state ^ headKey(parent.head);
+            if (parent.isVisited(newHead)) {
+                this.visited = parent.visited; // nepromjenjivo polje, dijeli se s roditeljem
+            } else {
+                this.visited = parent.visited.clone();
+                this.visited[newHead >>> 6] |= 1L << newHead;
+                visitedHash ^= vertexKey(newHead);
+            }
+            this.state = visitedHash ^ headKey(newHead);
+        }
     }
 
     public int getHead() {
-        return (int) (state & 0xFFFF); // donjih 16 bita
+        return head;
     }
 
-    public int getVisitedBits() {
-        return (int) (state >>> 16); // gornjih bitova
+    /**
+     * Visited bitovi za grafove do 48 vrhova.
+     */
+    public long getVisitedBits() {
+        if (visited != null) {
+            throw new IllegalStateException("Visited set of a graph with more than "
+                    + MAX_PACKED_VERTICES + " vertices does not fit in a long");
+        }
+        return state >>> 16; // gornjih 48 bitova
+    }
+
+    public boolean isVisited(int v) {
+        if (visited == null) {
+            return ((state >>> (16 + v)) & 1L) != 0;
+        }
+        return (visited[v >>> 6] & (1L << v)) != 0;
     }
 
     public boolean isWalkDone(int n) {
-        int visited = getVisitedBits();
-        int allVisitedMask = (1 << n) - 1; // n donjih bitova postavljeno na 1
-        return (visited & allVisitedMask) == allVisitedMask;
+        if (visited == null) {
+            long allVisitedMask = (1L << n) - 1; // n donjih bitova postavljeno na 1
+            return (getVisitedBits() & allVisitedMask) == allVisitedMask;
+        }
+        int fullWords = n >>> 6;
+        for (int i = 0; i < fullWords; i++) {
+            if (visited[i] != -1L) return false;
+        }
+        int rest = n & 63;
+        if (rest == 0) return true;
+        long restMask = (1L << rest) - 1;
+        return (visited[fullWords] & restMask) == restMask;
+    }
+
+    // Zobrist ključevi bez tablice: SplitMix64 nad indeksom vrha
+    private static long vertexKey(int v) {
+        return mix64(v + 0x9e3779b97f4a7c15L);
+    }
+
+    private static long headKey(int v) {
+        return mix64(~(long) v * 0xc2b2ae3d27d4eb4fL);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
     
     // Rekonstruiraj cijeli walk prateći parent pointere
@@ -1,6 +1,12 @@
 package heuristika;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import utils.*;
 
 /**
@@ -13,7 +19,11 @@ import utils.*;
  * Faze:
  * 1. Multi-Start Greedy Coverage - pokrij sve čvorove (više strategija)
  * 2. Closing - zatvori walk natrag na 0
- * 3. Advanced Local Optimization - 2-opt, segment removal, shortcut insertion
+ * 3. Advanced Local Optimization - Lin-Kernighan ({@link LinKernighan}, liste
+ *    kandidata) nad redoslijedom prvih posjeta, zatim 2-opt, shortcut i
+ *    node removal nad šetnjom
+ * 4. Najbolji start - Held-Karp po prozorima ({@link WindowedHeldKarp}) nad
+ *    redoslijedom prvih posjeta
  * 
  * POBOLJŠANJA V2:
  * - Multi-start: isprobaj više strategija odabira
@@ -21,7 +31,13 @@ import utils.*;
  * - Jača lokalna optimizacija: 2-opt + shortcut + node removal
  * - Or-opt: premještanje segmenata
  * 
- * Vremenska složenost: O(n³) 
+ * Vremenska složenost po startu, uz već izračunate min_distances (Floyd-Warshall,
+ * O(n³) jednom po grafu):
+ * - konstrukcija O(n²): sume udaljenosti do nepokrivenih vrhova održavaju se
+ *   inkrementalno (Coverage)
+ * - LK približno linearan po prolazu; 2-opt, shortcut i node removal O(n²) po
+ *   potezu, najviše 50 poteza
+ * - Held-Karp po prozorima O(n * w * 2^w), samo nad najboljim startom
  */
 public class ASPW {
     
@@ -33,33 +49,65 @@ public class ASPW {
     }
     
     /**
-     * Multi-start verzija - isprobaj više alpha vrijednosti i strategija
+     * Multi-start verzija - isprobaj više alpha vrijednosti i strategija.
+     * Startovi se izvode paralelno na zajedničkom ForkJoinPoolu, bez odbacivanja
+     * startova, pa je rezultat isti kao kod sekvencijalnog izvođenja.
      */
     public static Result solveMultiStart(Graph g) {
+        return solveMultiStart(g, ForkJoinPool.commonPool(), Double.POSITIVE_INFINITY);
+    }
+    
+    /**
+     * Paralelni multi-start na zadanom executoru.
+     * 
+     * Startovi ne dijele ništa osim grafa (samo čitanje) i najbolje cijene do sada.
+     * Start čija cijena konstrukcije (prije lokalne optimizacije) prijeđe
+     * pruneFactor * najbolja cijena prekida se odmah. Lokalna optimizacija može
+     * jako popraviti šetnju, pa odbacivanje nije egzaktno: s konačnim pruneFactor
+     * rezultat može ovisiti o redoslijedu završetka startova.
+     * 
+     * @param executor Executor za startove (npr. ForkJoinPool.commonPool() ili fiksni pool)
+     * @param pruneFactor Prag odbacivanja u odnosu na najbolju cijenu; POSITIVE_INFINITY = bez odbacivanja
+     */
+    public static Result solveMultiStart(Graph g, Executor executor, double pruneFactor) {
         double[] alphas = {0.0, 0.1, 0.2, 0.3, 0.4, 0.5};
         
-        Result best = null;
+        // Graf se priprema prije startova da ga dretve ne računaju istovremeno
+        g.minDistances();
+        g.candidateLists(Graph.DEFAULT_CANDIDATES);
+        
+        DoubleAccumulator incumbent = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        List<CompletableFuture<Result>> starts = new ArrayList<>();
         
         for (double alpha : alphas) {
-            Result r = solveSingleStart(g, alpha, false);
-            if (best == null || r.cost < best.cost) {
-                best = r;
-            }
+            starts.add(start(() -> solveSingleStart(g, alpha, false, incumbent, pruneFactor), incumbent, executor));
             
             // Probaj i s "return cost" heuristikom
-            Result r2 = solveSingleStart(g, alpha, true);
-            if (r2.cost < best.cost) {
-                best = r2;
-            }
+            starts.add(start(() -> solveSingleStart(g, alpha, true, incumbent, pruneFactor), incumbent, executor));
         }
         
         // Dodatno: nearest neighbor kao početak
-        Result greedyStart = solveFromGreedy(g);
-        if (greedyStart.cost < best.cost) {
-            best = greedyStart;
+        starts.add(start(() -> solveFromGreedy(g, incumbent, pruneFactor), incumbent, executor));
+        
+        // Redoslijed usporedbe isti kao sekvencijalno - kod jednake cijene pobjeđuje raniji start
+        Result best = null;
+        for (CompletableFuture<Result> start : starts) {
+            Result r = start.join();
+            if (r != null && (best == null || r.cost < best.cost)) {
+                best = r;
+            }
         }
         
-        return best;
+        return best == null ? null : windowedHeldKarp(best, g);
+    }
+    
+    private static CompletableFuture<Result> start(Supplier<Result> task, DoubleAccumulator incumbent,
+                                                   Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            Result r = task.get();
+            if (r != null) incumbent.accumulate(r.cost);
+            return r;
+        }, executor);
     }
     
     /**
@@ -70,32 +118,39 @@ public class ASPW {
      * @return Approximate solution
      */
     public static Result solve(Graph g, double alpha) {
-        return solveSingleStart(g, alpha, false);
+        return solveSingleStart(g, alpha, false, null, Double.POSITIVE_INFINITY);
     }
     
-    private static Result solveSingleStart(Graph g, double alpha, boolean considerReturn) {
+    /**
+     * @return null ako je start odbačen (konstrukcija skuplja od pruneFactor * incumbent)
+     */
+    private static Result solveSingleStart(Graph g, double alpha, boolean considerReturn,
+                                           DoubleAccumulator incumbent, double pruneFactor) {
         int n = g.n;
-        double[][] minDist = g.min_distances;
+        DistanceMatrix minDist = g.minDistances();
         
         if (n <= 1) return new Result(0, Arrays.asList(0));
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         // Phase 1: Greedy Coverage
         List<Integer> walk = new ArrayList<>();
         walk.add(0);
+        double built = 0;
         
-        Set<Integer> uncovered = new HashSet<>();
-        for (int i = 1; i < n; i++) {
-            uncovered.add(i);
-        }
+        // Centralnost (prosjek udaljenosti do nepokrivenih) treba samo za alpha > 0
+        Coverage uncovered = new Coverage(n, minDist, alpha != 0);
         
         while (!uncovered.isEmpty()) {
             int current = walk.get(walk.size() - 1);
             
             // Select next node to cover
-            int next = selectNext(current, uncovered, minDist, alpha, considerReturn);
+            int next = selectNext(current, uncovered, candidates[current], minDist, alpha, considerReturn);
+            
+            built += minDist.get(current, next);
+            if (hopeless(built, incumbent, pruneFactor)) return null;
             
             // Reconstruct shortest path current→next and add to walk
-            List<Integer> path = reconstructPath(current, next, g);
+            List<Integer> path = g.shortestPath(current, next);
             
             // Add path (skip first node - already in walk)
             for (int i = 1; i < path.size(); i++) {
@@ -104,14 +159,14 @@ public class ASPW {
             
             // Ukloni SVE čvorove na putu iz uncovered (ne samo destinaciju!)
             for (int node : path) {
-                uncovered.remove(node);
+                uncovered.cover(node);
             }
         }
         
         // Phase 2: Closing
         int last = walk.get(walk.size() - 1);
         if (last != 0) {
-            List<Integer> closingPath = reconstructPath(last, 0, g);
+            List<Integer> closingPath = g.shortestPath(last, 0);
             for (int i = 1; i < closingPath.size(); i++) {
                 walk.add(closingPath.get(i));
             }
@@ -120,7 +175,7 @@ public class ASPW {
         // Phase 3: Advanced Local Optimization
         walk = advancedLocalOptimization(walk, g);
         
-        double cost = evaluateWalk(walk, g.distance_matrix);
+        double cost = evaluateWalk(walk, g.distances());
         
         return new Result(cost, walk);
     }
@@ -128,413 +183,506 @@ public class ASPW {
     /**
      * Počni od greedy nearest neighbor i optimiziraj
      */
-    private static Result solveFromGreedy(Graph g) {
+    private static Result solveFromGreedy(Graph g, DoubleAccumulator incumbent, double pruneFactor) {
         int n = g.n;
-        double[][] minDist = g.min_distances;
+        DistanceMatrix minDist = g.minDistances();
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         List<Integer> walk = new ArrayList<>();
         walk.add(0);
+        double built = 0;
         
-        Set<Integer> uncovered = new HashSet<>();
-        for (int i = 1; i < n; i++) {
-            uncovered.add(i);
-        }
+        Coverage uncovered = new Coverage(n, minDist, false);
         
         // Pure nearest neighbor
         while (!uncovered.isEmpty()) {
             int current = walk.get(walk.size() - 1);
             
             int nearest = -1;
+            for (int c : candidates[current]) {
+                if (uncovered.contains(c)) {
+                    nearest = c;
+                    break;
+                }
+            }
             double nearestDist = Double.MAX_VALUE;
-            for (int candidate : uncovered) {
-                if (minDist[current][candidate] < nearestDist) {
-                    nearestDist = minDist[current][candidate];
-                    nearest = candidate;
+            if (nearest == -1) {
+                for (int candidate = uncovered.first(); candidate >= 0; candidate = uncovered.next(candidate)) {
+                    if (minDist.get(current, candidate) < nearestDist) {
+                        nearestDist = minDist.get(current, candidate);
+                        nearest = candidate;
+                    }
                 }
             }
             
+            built += minDist.get(current, nearest);
+            if (hopeless(built, incumbent, pruneFactor)) return null;
+            
             // Dodaj shortest path
-            List<Integer> path = reconstructPath(current, nearest, g);
+            List<Integer> path = g.shortestPath(current, nearest);
             for (int i = 1; i < path.size(); i++) {
                 walk.add(path.get(i));
             }
             
             for (int node : path) {
-                uncovered.remove(node);
+                uncovered.cover(node);
             }
         }
         
         // Close
         int last = walk.get(walk.size() - 1);
         if (last != 0) {
-            List<Integer> closingPath = reconstructPath(last, 0, g);
+            List<Integer> closingPath = g.shortestPath(last, 0);
             for (int i = 1; i < closingPath.size(); i++) {
                 walk.add(closingPath.get(i));
             }
         }
         
         walk = advancedLocalOptimization(walk, g);
-        double cost = evaluateWalk(walk, g.distance_matrix);
+        double cost = evaluateWalk(walk, g.distances());
         
         return new Result(cost, walk);
     }
     
+    // Djelomična konstrukcija već je skuplja od dopuštenog u odnosu na najbolji završeni start
+    private static boolean hopeless(double built, DoubleAccumulator incumbent, double pruneFactor) {
+        return incumbent != null && built > pruneFactor * incumbent.get();
+    }
+    
     /**
-     * Select next node to cover based on distance, centrality, and return cost
+     * Select next node to cover based on distance, centrality, and return cost.
+     * Razmatraju se samo nepokriveni kandidati (k najbližih od current); ako su
+     * svi pokriveni, razmatraju se svi nepokriveni čvorovi.
      */
-    private static int selectNext(int current, Set<Integer> uncovered, 
-                                   double[][] minDist, double alpha, boolean considerReturn) {
+    private static int selectNext(int current, Coverage uncovered, int[] candidates,
+                                   DistanceMatrix minDist, double alpha, boolean considerReturn) {
+        boolean anyCandidate = false;
+        for (int c : candidates) {
+            if (uncovered.contains(c)) {
+                anyCandidate = true;
+                break;
+            }
+        }
+        
         int best = -1;
         double bestScore = Double.MAX_VALUE;
         
-        for (int candidate : uncovered) {
-            // Distance to reach candidate
-            double dist = minDist[current][candidate];
-            
-            // Average distance from candidate to remaining nodes (centrality)
-            double avgRemaining = avgDistanceToRemaining(candidate, uncovered, minDist);
-            
-            // Return cost to 0 (važno za završetak!)
-            double returnCost = considerReturn ? minDist[candidate][0] * 0.3 : 0;
-            
-            // Combined score
-            double score = dist + alpha * avgRemaining + returnCost;
-            
-            if (score < bestScore) {
-                bestScore = score;
-                best = candidate;
+        if (anyCandidate) {
+            for (int candidate : candidates) {
+                if (!uncovered.contains(candidate)) continue;
+                double score = score(current, candidate, uncovered, minDist, alpha, considerReturn);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = candidate;
+                }
+            }
+        } else {
+            for (int candidate = uncovered.first(); candidate >= 0; candidate = uncovered.next(candidate)) {
+                double score = score(current, candidate, uncovered, minDist, alpha, considerReturn);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = candidate;
+                }
             }
         }
         
         return best;
     }
     
-    /**
-     * Compute average distance from node to remaining uncovered nodes
-     */
-    private static double avgDistanceToRemaining(int node, Set<Integer> uncovered, 
-                                                  double[][] minDist) {
-        if (uncovered.size() <= 1) return 0.0;
+    private static double score(int current, int candidate, Coverage uncovered, DistanceMatrix minDist,
+                                double alpha, boolean considerReturn) {
+        // Distance to reach candidate
+        double dist = minDist.get(current, candidate);
         
-        double sum = 0.0;
-        int count = 0;
+        // Average distance from candidate to remaining nodes (centrality), O(1)
+        double avgRemaining = alpha != 0 ? uncovered.avgDistance(candidate) : 0;
         
-        for (int other : uncovered) {
-            if (other != node) {
-                sum += minDist[node][other];
-                count++;
-            }
-        }
+        // Return cost to 0 (važno za završetak!)
+        double returnCost = considerReturn ? minDist.get(candidate, 0) * 0.3 : 0;
         
-        return count > 0 ? sum / count : 0.0;
+        // Combined score
+        return dist + alpha * avgRemaining + returnCost;
     }
     
     /**
-     * Reconstruct shortest path from start to end using predecessor info
+     * Nepokriveni vrhovi (na početku svi osim 0): primitivni bitset za članstvo i
+     * uzlazni obilazak, bez boxinga.
+     * 
+     * S centralnošću se za svaki vrh v održava suma udaljenosti do nepokrivenih
+     * (bez samog v): inicijalizacija je O(n^2), a pokrivanje vrha c oduzima
+     * stupac c u O(n), pa je prosjek udaljenosti do preostalih O(1) umjesto O(n)
+     * i cijela konstrukcija O(n^2) umjesto O(n^3).
      */
-    private static List<Integer> reconstructPath(int start, int end, Graph g) {
-        if (start == end) {
-            return Arrays.asList(start);
+    private static final class Coverage {
+        private final long[] words;
+        private int size;
+        
+        private final DistanceMatrix minDist;
+        // Konačne udaljenosti se zbrajaju, beskonačne broje zasebno (INF - INF bi dao NaN)
+        private final double[] sum;
+        private final int[] infinite;
+        
+        Coverage(int n, DistanceMatrix minDist, boolean centrality) {
+            this.words = new long[(n + 63) >>> 6];
+            for (int v = 1; v < n; v++) {
+                words[v >>> 6] |= 1L << v;
+            }
+            this.size = Math.max(0, n - 1);
+            this.minDist = minDist;
+            this.sum = centrality ? new double[n] : null;
+            this.infinite = centrality ? new int[n] : null;
+            
+            if (centrality) {
+                for (int v = 0; v < n; v++) {
+                    double s = 0;
+                    int inf = 0;
+                    for (int u = 1; u < n; u++) {
+                        if (u == v) continue;
+                        double d = minDist.get(v, u);
+                        if (d == Double.POSITIVE_INFINITY) inf++;
+                        else s += d;
+                    }
+                    sum[v] = s;
+                    infinite[v] = inf;
+                }
+            }
         }
         
-        int n = g.n;
-        double[][] minDist = g.min_distances;
-        double[][] directDist = g.distance_matrix;
-        
-        // Jednostavnija rekonstrukcija - traži greedy put
-        List<Integer> path = new ArrayList<>();
-        path.add(start);
+        boolean isEmpty() {
+            return size == 0;
+        }
         
-        int current = start;
-        int maxSteps = n * 2; // Zaštita od beskonačne petlje
-        int steps = 0;
+        boolean contains(int v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
         
-        while (current != end && steps < maxSteps) {
-            steps++;
-            int bestNext = -1;
-            double bestProgress = Double.MAX_VALUE;
+        void cover(int c) {
+            if (!contains(c)) return;
+            words[c >>> 6] &= ~(1L << c);
+            size--;
             
-            for (int next = 0; next < n; next++) {
-                if (next == current) continue;
-                
-                // Biramo čvor koji nas vodi bliže cilju
-                double progressScore = directDist[current][next] + minDist[next][end];
-                
-                // Provjeri da je to dio optimalnog puta
-                if (Math.abs(directDist[current][next] + minDist[next][end] - minDist[current][end]) < 1e-9) {
-                    if (progressScore < bestProgress) {
-                        bestProgress = progressScore;
-                        bestNext = next;
-                    }
+            if (sum != null) {
+                for (int v = 0; v < sum.length; v++) {
+                    if (v == c) continue;
+                    double d = minDist.get(v, c);
+                    if (d == Double.POSITIVE_INFINITY) infinite[v]--;
+                    else sum[v] -= d;
                 }
             }
-            
-            if (bestNext == -1) {
-                // Fallback: direktan skok
-                path.add(end);
-                break;
+        }
+        
+        // Uzlazni obilazak: first() pa next(v) dok je rezultat >= 0
+        int first() {
+            return next(-1);
+        }
+        
+        int next(int v) {
+            int from = v + 1;
+            int w = from >>> 6;
+            if (w >= words.length) return -1;
+            long word = words[w] & (-1L << from);
+            while (true) {
+                if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+                if (++w == words.length) return -1;
+                word = words[w];
             }
-            
-            path.add(bestNext);
-            current = bestNext;
         }
         
-        return path;
+        /**
+         * Prosječna udaljenost od node do ostalih nepokrivenih vrhova.
+         */
+        double avgDistance(int node) {
+            if (size <= 1) return 0.0;
+            int others = contains(node) ? size - 1 : size;
+            if (others == 0) return 0.0;
+            if (infinite[node] > 0) return Double.POSITIVE_INFINITY;
+            return sum[node] / others;
+        }
     }
     
     /**
      * Advanced local optimization with multiple operators
      */
     private static List<Integer> advancedLocalOptimization(List<Integer> walk, Graph g) {
-        List<Integer> optimized = new ArrayList<>(walk);
-        int n = g.n;
-        boolean improved = true;
+        LocalWalk optimized = new LocalWalk(linKernighan(walk, g), g);
         int iterations = 0;
         int maxIterations = 50;  // Više iteracija
         
-        while (improved && iterations < maxIterations) {
-            improved = false;
+        while (iterations < maxIterations) {
             iterations++;
             
-            double currentCost = evaluateWalk(optimized, g.distance_matrix);
-            
             // Operator 1: 2-opt za MCW (swap segmenata)
-            List<Integer> after2opt = try2Opt(optimized, g, currentCost);
-            if (after2opt != null) {
-                optimized = after2opt;
-                improved = true;
-                continue;
-            }
+            if (optimized.try2Opt()) continue;
             
             // Operator 2: Shortcut - zamijeni segment s kraćim putem
-            List<Integer> afterShortcut = tryShortcut(optimized, g, currentCost);
-            if (afterShortcut != null) {
-                optimized = afterShortcut;
-                improved = true;
-                continue;
-            }
+            if (optimized.tryShortcut()) continue;
             
             // Operator 3: Node removal - ukloni nepotrebne čvorove
-            List<Integer> afterRemoval = tryNodeRemoval(optimized, g, n, currentCost);
-            if (afterRemoval != null) {
-                optimized = afterRemoval;
-                improved = true;
-                continue;
-            }
+            if (optimized.tryNodeRemoval()) continue;
+            
+            break;
         }
         
-        return optimized;
+        return optimized.toList();
     }
     
     /**
-     * 2-opt: pokušaj preokrenuti segment
+     * Lin-Kernighan nad redoslijedom prvih posjeta. Cijena tog redoslijeda po
+     * min_distances nije veća od cijene šetnje, pa se šetnja svodi na permutaciju,
+     * LK je poboljša i ona se razvija natrag najkraćim putevima. Kod nesimetričnih
+     * udaljenosti LK nije egzaktan, pa se rezultat uzima samo ako je jeftiniji.
      */
-    private static List<Integer> try2Opt(List<Integer> walk, Graph g, double currentCost) {
-        int len = walk.size();
-        double[][] dist = g.distance_matrix;
-        
-        for (int i = 0; i < len - 2; i++) {
-            for (int j = i + 2; j < len - 1; j++) {
-                // Provjeri sve čvorove u segmentu - moraju biti pokriveni
-                
-                // Izračunaj ušteku od 2-opt
-                int a = walk.get(i);
-                int b = walk.get(i + 1);
-                int c = walk.get(j);
-                int d = walk.get(j + 1);
-                
-                double oldEdges = dist[a][b] + dist[c][d];
-                double newEdges = dist[a][c] + dist[b][d];
-                
-                if (newEdges < oldEdges - 1e-9) {
-                    // Preokreni segment [i+1, j]
-                    List<Integer> newWalk = new ArrayList<>();
-                    for (int k = 0; k <= i; k++) {
-                        newWalk.add(walk.get(k));
-                    }
-                    for (int k = j; k >= i + 1; k--) {
-                        newWalk.add(walk.get(k));
-                    }
-                    for (int k = j + 1; k < len; k++) {
-                        newWalk.add(walk.get(k));
-                    }
-                    
-                    // Provjeri da je valid walk
-                    if (isValidWalk(newWalk, g.n)) {
-                        double newCost = evaluateWalk(newWalk, dist);
-                        if (newCost < currentCost - 1e-9) {
-                            return newWalk;
-                        }
-                    }
-                }
+    private static List<Integer> linKernighan(List<Integer> walk, Graph g) {
+        return improveOrder(walk, g, order -> LinKernighan.improve(order, g));
+    }
+    
+    /**
+     * Held-Karp po prozorima ({@link WindowedHeldKarp}) nad redoslijedom prvih posjeta,
+     * kao {@link #linKernighan(List, Graph)}. Skuplji od LK, pa se radi samo nad
+     * najboljim startom.
+     */
+    private static Result windowedHeldKarp(Result best, Graph g) {
+        List<Integer> walk = improveOrder(best.tour, g, order -> WindowedHeldKarp.improve(order, g));
+        return walk == best.tour ? best : new Result(evaluateWalk(walk, g.distances()), walk);
+    }
+    
+    private static List<Integer> improveOrder(List<Integer> walk, Graph g, Consumer<int[]> improve) {
+        int n = g.n;
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int size = 0;
+        for (int v : walk) {
+            if (!seen[v]) {
+                seen[v] = true;
+                order[size++] = v;
             }
         }
-        return null;
+        if (size < n) return walk;
+        
+        improve.accept(order);
+        
+        int zero = 0;
+        while (order[zero] != 0) zero++;
+        List<Integer> sequence = new ArrayList<>(n + 1);
+        for (int i = 0; i < n; i++) {
+            sequence.add(order[(zero + i) % n]);
+        }
+        sequence.add(0);
+        
+        List<Integer> expanded = g.expandWalk(sequence);
+        DistanceMatrix distances = g.distances();
+        return evaluateWalk(expanded, distances) < evaluateWalk(walk, distances) ? expanded : walk;
     }
     
     /**
-     * Shortcut: zamijeni segment s kraćim putem
+     * Šetnja za lokalnu pretragu u int[] polju.
+     * 
+     * - fwd[k] / rev[k]: prefiksne sume cijena bridova naprijed i unatrag, pa je
+     *   cijena bilo kojeg segmenta (i obrnutog segmenta) O(1)
+     * - count[v]: broj pojavljivanja vrha v u šetnji; potez je valjan ako svaki
+     *   uklonjeni vrh ostaje negdje drugdje, bez ponovne provjere cijele šetnje
+     * - poboljšanje se primjenjuje na mjestu (preokret ili zamjena raspona najkraćim putem)
+     * 
+     * Svaki operator vraća prvo poboljšanje, kao i prije; prolaz je O(L^2) umjesto
+     * O(L^3) (2-opt) odnosno O(L^4) (shortcut) za šetnju duljine L.
      */
-    private static List<Integer> tryShortcut(List<Integer> walk, Graph g, double currentCost) {
-        double[][] dist = g.distance_matrix;
+    private static final class LocalWalk {
+        private static final double EPS = 1e-9;
+        
+        private final Graph g;
+        private final int n;
+        private final DistanceMatrix dist;
+        private final DistanceMatrix minDist;
+        
+        private int[] nodes;
+        private int size;
+        private double[] fwd;
+        private double[] rev;
+        private final int[] count;
+        
+        // Pomoćni spremnici: pojavljivanja unutar segmenta (shortcut) i put za umetanje
+        private final int[] segCount;
+        private final int[] path;
+        
+        LocalWalk(List<Integer> walk, Graph g) {
+            this.g = g;
+            this.n = g.n;
+            this.dist = g.distances();
+            this.minDist = g.minDistances();
+            this.size = walk.size();
+            this.nodes = new int[Math.max(16, size * 2)];
+            this.fwd = new double[nodes.length];
+            this.rev = new double[nodes.length];
+            this.count = new int[n];
+            this.segCount = new int[n];
+            this.path = new int[n];
+            for (int k = 0; k < size; k++) {
+                nodes[k] = walk.get(k);
+                count[nodes[k]]++;
+            }
+            rebuildPrefix();
+        }
         
-        for (int i = 0; i < walk.size() - 3; i++) {
-            for (int j = i + 3; j < walk.size(); j++) {
-                int a = walk.get(i);
-                int b = walk.get(j);
-                
-                // Provjeri jesu li svi čvorovi u segmentu pokriveni drugdje
-                Set<Integer> segmentNodes = new HashSet<>();
-                for (int k = i + 1; k < j; k++) {
-                    segmentNodes.add(walk.get(k));
-                }
-                
-                boolean allCoveredElsewhere = true;
-                for (int node : segmentNodes) {
-                    boolean found = false;
-                    for (int k = 0; k < walk.size(); k++) {
-                        if ((k <= i || k >= j) && walk.get(k) == node) {
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        allCoveredElsewhere = false;
-                        break;
+        List<Integer> toList() {
+            List<Integer> walk = new ArrayList<>(size);
+            for (int k = 0; k < size; k++) walk.add(nodes[k]);
+            return walk;
+        }
+        
+        private void rebuildPrefix() {
+            fwd[0] = 0;
+            rev[0] = 0;
+            for (int k = 0; k + 1 < size; k++) {
+                fwd[k + 1] = fwd[k] + dist.get(nodes[k], nodes[k + 1]);
+                rev[k + 1] = rev[k] + dist.get(nodes[k + 1], nodes[k]);
+            }
+        }
+        
+        /**
+         * 2-opt: pokušaj preokrenuti segment [i+1, j]. Isti vrhovi ostaju u šetnji pa
+         * je potez uvijek valjan; delta uključuje i unutrašnjost segmenta (asimetrične težine).
+         */
+        boolean try2Opt() {
+            int len = size;
+            for (int i = 0; i < len - 2; i++) {
+                int a = nodes[i];
+                int b = nodes[i + 1];
+                double ab = dist.get(a, b);
+                for (int j = i + 2; j < len - 1; j++) {
+                    int c = nodes[j];
+                    int d = nodes[j + 1];
+                    
+                    double delta = dist.get(a, c) + dist.get(b, d) - ab - dist.get(c, d)
+                            + (rev[j] - rev[i + 1]) - (fwd[j] - fwd[i + 1]);
+                    
+                    if (delta < -EPS) {
+                        reverse(i + 1, j);
+                        rebuildPrefix();
+                        return true;
                     }
                 }
+            }
+            return false;
+        }
+        
+        /**
+         * Shortcut: zamijeni segment između pozicija i i j najkraćim putem.
+         * Za fiksni i, unutrašnjost (i, j) raste s j pa se brojači segmenta samo
+         * povećavaju; čim neki vrh nema pojavljivanje izvan segmenta, veći j ne pomažu.
+         */
+        boolean tryShortcut() {
+            int len = size;
+            for (int i = 0; i < len - 3; i++) {
+                int a = nodes[i];
+                int added = i;
+                int uncovered = 0;
+                boolean applied = false;
                 
-                if (allCoveredElsewhere) {
-                    // Zamijeni s shortest path
-                    List<Integer> shortcut = reconstructPath(a, b, g);
+                for (int j = i + 3; j < len; j++) {
+                    while (added < j - 1) {
+                        int v = nodes[++added];
+                        if (++segCount[v] == count[v]) uncovered++;
+                    }
+                    if (uncovered > 0) break;
                     
-                    double oldCost = segmentCost(walk, i, j, dist);
-                    double newCost = pathCost(shortcut, dist);
+                    int b = nodes[j];
+                    double oldCost = fwd[j] - fwd[i];
+                    double newCost = minDist.get(a, b);
                     
-                    if (newCost < oldCost - 1e-9) {
-                        List<Integer> newWalk = new ArrayList<>();
-                        for (int k = 0; k <= i; k++) {
-                            newWalk.add(walk.get(k));
-                        }
-                        for (int k = 1; k < shortcut.size(); k++) {
-                            newWalk.add(shortcut.get(k));
-                        }
-                        for (int k = j + 1; k < walk.size(); k++) {
-                            newWalk.add(walk.get(k));
-                        }
-                        
-                        if (isValidWalk(newWalk, g.n)) {
-                            double totalNewCost = evaluateWalk(newWalk, dist);
-                            if (totalNewCost < currentCost - 1e-9) {
-                                return newWalk;
-                            }
-                        }
+                    if (newCost < oldCost - EPS) {
+                        clearSegment(i + 1, added);
+                        replaceWithPath(i + 1, j, a, b);
+                        applied = true;
+                        break;
                     }
                 }
+                if (applied) return true;
+                clearSegment(i + 1, added);
             }
+            return false;
         }
-        return null;
-    }
-    
-    /**
-     * Node removal: ukloni čvor ako je pokriven drugdje
-     */
-    private static List<Integer> tryNodeRemoval(List<Integer> walk, Graph g, int n, double currentCost) {
-        double[][] dist = g.distance_matrix;
         
-        for (int i = 1; i < walk.size() - 1; i++) {
-            int node = walk.get(i);
-            
-            // Provjeri pojavljuje li se čvor drugdje
-            boolean appearsElsewhere = false;
-            for (int j = 0; j < walk.size(); j++) {
-                if (j != i && walk.get(j) == node) {
-                    appearsElsewhere = true;
-                    break;
-                }
-            }
-            
-            if (appearsElsewhere) {
-                int prev = walk.get(i - 1);
-                int next = walk.get(i + 1);
-                
-                // Pokušaj ukloniti i spojiti s shortest path
-                List<Integer> bridge = reconstructPath(prev, next, g);
+        /**
+         * Node removal: ukloni čvor ako je pokriven drugdje, susjede spoji najkraćim putem.
+         */
+        boolean tryNodeRemoval() {
+            for (int i = 1; i < size - 1; i++) {
+                int node = nodes[i];
+                if (count[node] < 2) continue;
                 
-                double oldCost = dist[prev][node] + dist[node][next];
-                double newCost = pathCost(bridge, dist);
+                int prev = nodes[i - 1];
+                int next = nodes[i + 1];
+                double oldCost = dist.get(prev, node) + dist.get(node, next);
+                double newCost = minDist.get(prev, next);
                 
-                if (newCost < oldCost - 1e-9) {
-                    List<Integer> newWalk = new ArrayList<>();
-                    for (int k = 0; k < i; k++) {
-                        newWalk.add(walk.get(k));
-                    }
-                    for (int k = 1; k < bridge.size(); k++) {
-                        newWalk.add(bridge.get(k));
-                    }
-                    for (int k = i + 2; k < walk.size(); k++) {
-                        newWalk.add(walk.get(k));
-                    }
-                    
-                    if (isValidWalk(newWalk, n)) {
-                        double totalNewCost = evaluateWalk(newWalk, dist);
-                        if (totalNewCost < currentCost - 1e-9) {
-                            return newWalk;
-                        }
-                    }
+                if (newCost < oldCost - EPS) {
+                    replaceWithPath(i, i + 1, prev, next);
+                    return true;
                 }
             }
+            return false;
         }
-        return null;
-    }
-    
-    /**
-     * Provjeri je li walk validan (posjećuje sve čvorove)
-     */
-    private static boolean isValidWalk(List<Integer> walk, int n) {
-        Set<Integer> visited = new HashSet<>(walk);
-        for (int i = 0; i < n; i++) {
-            if (!visited.contains(i)) return false;
+        
+        private void clearSegment(int from, int to) {
+            for (int k = from; k <= to; k++) segCount[nodes[k]] = 0;
         }
-        return walk.get(0) == 0; // Mora početi sa 0
-    }
-    
-    /**
-     * Calculate cost of a segment in walk
-     */
-    private static double segmentCost(List<Integer> walk, int start, int end, 
-                                      double[][] distances) {
-        double cost = 0.0;
-        for (int i = start; i < end; i++) {
-            cost += distances[walk.get(i)][walk.get(i + 1)];
+        
+        private void reverse(int from, int to) {
+            while (from < to) {
+                int tmp = nodes[from];
+                nodes[from] = nodes[to];
+                nodes[to] = tmp;
+                from++;
+                to--;
+            }
         }
-        return cost;
-    }
-    
-    /**
-     * Calculate cost of a path
-     */
-    private static double pathCost(List<Integer> path, double[][] distances) {
-        double cost = 0.0;
-        for (int i = 0; i < path.size() - 1; i++) {
-            cost += distances[path.get(i)][path.get(i + 1)];
+        
+        /**
+         * Zamjenjuje nodes[from..to] vrhovima najkraćeg puta a -> b bez samog a
+         * (kao Graph.appendPath) i ažurira brojače i prefiksne sume.
+         */
+        private void replaceWithPath(int from, int to, int a, int b) {
+            int m = 0;
+            int current = a;
+            while (current != b) {
+                current = g.nextHop(current, b);
+                if (current < 0 || m == n) {
+                    throw new IllegalStateException("No shortest path from " + a + " to " + b);
+                }
+                path[m++] = current;
+            }
+            
+            for (int k = from; k <= to; k++) count[nodes[k]]--;
+            for (int k = 0; k < m; k++) count[path[k]]++;
+            
+            int tail = size - (to + 1);
+            int newSize = from + m + tail;
+            if (newSize > nodes.length) {
+                int capacity = Math.max(newSize, nodes.length * 2);
+                nodes = Arrays.copyOf(nodes, capacity);
+                fwd = new double[capacity];
+                rev = new double[capacity];
+            }
+            System.arraycopy(nodes, to + 1, nodes, from + m, tail);
+            System.arraycopy(path, 0, nodes, from, m);
+            size = newSize;
+            rebuildPrefix();
         }
-        return cost;
     }
     
     /**
      * Evaluate total walk cost
      */
-    private static double evaluateWalk(List<Integer> walk, double[][] distances) {
+    private static double evaluateWalk(List<Integer> walk, DistanceMatrix distances) {
         if (walk.size() < 2) return 0.0;
         
         double cost = 0.0;
         for (int i = 0; i < walk.size() - 1; i++) {
-            cost += distances[walk.get(i)][walk.get(i + 1)];
+            cost += distances.get(walk.get(i), walk.get(i + 1));
         }
         
         // Close the walk (last → first)
-        cost += distances[walk.get(walk.size() - 1)][walk.get(0)];
+        cost += distances.get(walk.get(walk.size() - 1), walk.get(0));
         
         return cost;
     }
@@ -0,0 +1,79 @@
+package heuristika;
+
+/**
+ * Tura u polju s pozicijama i zastavicom smjera. Preokret uvijek ide po kraćoj
+ * strani (ako je duža, preokreće se komplement i mijenja smjer), pa je najviše n/2 zamjena.
+ */
+public final class ArrayTour implements Tour {
+
+    private final int n;
+    private final int[] physical;
+    private final int[] pos;
+    // Logički smjer je obrnut od fizičkog
+    private boolean flipped;
+
+    public ArrayTour(int[] order) {
+        this.n = order.length;
+        this.physical = order.clone();
+        this.pos = new int[n];
+        for (int i = 0; i < n; i++) pos[physical[i]] = i;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int next(int v) {
+        int i = pos[v] + (flipped ? -1 : 1);
+        return physical[(i + n) % n];
+    }
+
+    @Override
+    public int prev(int v) {
+        int i = pos[v] + (flipped ? 1 : -1);
+        return physical[(i + n) % n];
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        if (flipped) {
+            int tmp = a;
+            a = c;
+            c = tmp;
+        }
+        int pa = pos[a];
+        int pb = (pos[b] - pa + n) % n;
+        int pc = (pos[c] - pa + n) % n;
+        return pb <= pc;
+    }
+
+    @Override
+    public void reverse(int from, int to) {
+        int i = pos[from];
+        int j = pos[to];
+        if (flipped) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        int len = ((j - i + n) % n) + 1;
+        if (2 * len > n) {
+            int newI = (j + 1) % n;
+            j = (i - 1 + n) % n;
+            i = newI;
+            len = n - len;
+            flipped = !flipped;
+        }
+        for (int s = 0; s < len / 2; s++) {
+            int l = (i + s) % n;
+            int r = (j - s + n) % n;
+            int tmp = physical[l];
+            physical[l] = physical[r];
+            physical[r] = tmp;
+            pos[physical[l]] = l;
+            pos[physical[r]] = r;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package heuristika;
+
+import fer.HeldKarpPath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import utils.*;
+
+/**
+ * Dekompozicija: klasteri do MAX_CLUSTER vrhova rješavaju se egzaktno i spajaju u turu.
+ *
+ * 1. Klasteriranje
+ *    - {@link EuclideanGraph}: k-means po koordinatama (početni centri ravnomjerno po
+ *      {@link HilbertCurve}, pridruživanje preko {@link KdTree})
+ *    - ostali grafovi: rekurzivna bisekcija po min_distances (dva udaljena pivota)
+ *    - preveliki klasteri dijele se bisekcijom
+ * 2. Redoslijed klastera: tura nad predstavnicima (vrh najbliži centru, odnosno pivot)
+ *    Lin-Kernighanom
+ * 3. Ulaz i izlaz svakog klastera: najbliži par vrhova između susjednih klastera
+ * 4. Put ulaz -> (ostatak klastera) -> izlaz egzaktno ({@link HeldKarpPath}),
+ *    klasteri paralelno
+ * 5. Šavovi između klastera: {@link LinKernighan} i {@link WindowedHeldKarp} nad cijelom turom
+ *
+ * Svaki klaster je O(s^2 * 2^s) za s <= MAX_CLUSTER, pa je ukupno vrijeme linearno
+ * u n uz fiksnu konstantu. Rezultat je kao kod {@link Greedy}: redoslijed vrhova od 0
+ * s povratkom u 0, cijena po min_distances. Ako neki put ne postoji (nepovezan graf),
+ * kao kod {@link fer.ClosedWalkSolver} vraća se cijena POSITIVE_INFINITY i prazna tura.
+ */
+public class ClusterDecomposition {
+
+    public static final int MAX_CLUSTER = 16;
+
+    private static final int LLOYD_ITERATIONS = 10;
+
+    public static Result solve(Graph g) {
+        return solve(g, MAX_CLUSTER);
+    }
+
+    /**
+     * @param maxClusterSize Najveći broj vrhova u klasteru (najviše HeldKarpPath.MAX_INNER + 1,
+     *        jer se graf od najviše maxClusterSize vrhova rješava kao ciklus iz 0 s n - 1 unutarnjih vrhova)
+     */
+    public static Result solve(Graph g, int maxClusterSize) {
+        if (maxClusterSize < 2 || maxClusterSize > HeldKarpPath.MAX_INNER + 1) {
+            throw new IllegalArgumentException("Cluster size must be in [2, " + (HeldKarpPath.MAX_INNER + 1) + "]: " + maxClusterSize);
+        }
+        int n = g.n;
+        if (n == 0) return new Result(0, new ArrayList<>());
+
+        DistanceMatrix d = g.minDistances();
+        int[] order = n <= maxClusterSize ? solveWhole(d) : decompose(g, maxClusterSize);
+        if (order == null) {
+            return new Result(Double.POSITIVE_INFINITY, new ArrayList<>());
+        }
+
+        List<Integer> tour = new ArrayList<>(n + 1);
+        for (int v : order) tour.add(v);
+        tour.add(0);
+
+        double cost = 0;
+        for (int i = 0; i < n; i++) {
+            cost += d.get(order[i], order[(i + 1) % n]);
+        }
+        return new Result(cost, tour);
+    }
+
+    // Cijeli graf je jedan klaster: zatvorena šetnja iz 0; null ako ne postoji
+    private static int[] solveWhole(DistanceMatrix d) {
+        int n = d.size();
+        int[] inner = new int[n - 1];
+        for (int v = 1; v < n; v++) inner[v - 1] = v;
+        int[] path = new int[n - 1];
+        if (HeldKarpPath.solve(d, 0, inner, 0, path) == Double.POSITIVE_INFINITY) return null;
+
+        int[] order = new int[n];
+        System.arraycopy(path, 0, order, 1, n - 1);
+        return order;
+    }
+
+    // null ako neki klaster nema put između svog ulaza i izlaza
+    private static int[] decompose(Graph g, int maxSize) {
+        int n = g.n;
+        DistanceMatrix d = g.minDistances();
+
+        List<int[]> clusters = new ArrayList<>();
+        int[] representatives;
+        if (g instanceof EuclideanGraph) {
+            representatives = kMeans((EuclideanGraph) g, maxSize, clusters);
+        } else {
+            int[] all = new int[n];
+            for (int v = 0; v < n; v++) all[v] = v;
+            bisect(all, d, maxSize, clusters);
+            representatives = new int[clusters.size()];
+            for (int c = 0; c < representatives.length; c++) representatives[c] = clusters.get(c)[0];
+        }
+
+        int[] clusterOrder = clusterTour(g, representatives);
+        int k = clusterOrder.length;
+        int[][] ordered = new int[k][];
+        for (int i = 0; i < k; i++) ordered[i] = clusters.get(clusterOrder[i]);
+
+        // Ulazi i izlazi: prvo šav zadnji -> prvi, zatim redom; unutar klastera od
+        // barem dva vrha ulaz i izlaz su različiti
+        int[] entry = new int[k];
+        int[] exit = new int[k];
+        Arrays.fill(entry, -1);
+        Arrays.fill(exit, -1);
+        int[] seam = closestPair(d, ordered[k - 1], -1, ordered[0], -1);
+        exit[k - 1] = seam[0];
+        entry[0] = seam[1];
+        for (int i = 0; i + 1 < k; i++) {
+            seam = closestPair(d, ordered[i], entry[i], ordered[i + 1], exit[i + 1]);
+            exit[i] = seam[0];
+            entry[i + 1] = seam[1];
+        }
+
+        int[][] paths = new int[k][];
+        IntStream.range(0, k).parallel().forEach(i -> paths[i] = clusterPath(d, ordered[i], entry[i], exit[i]));
+
+        int[] order = new int[n];
+        int size = 0;
+        for (int[] path : paths) {
+            if (path == null) return null;
+            System.arraycopy(path, 0, order, size, path.length);
+            size += path.length;
+        }
+
+        // Šavovi: unutrašnjost klastera je već optimalna, LK i prozori popravljaju prijelaze
+        LinKernighan.improve(order, g);
+        WindowedHeldKarp.improve(order, g);
+
+        int zero = 0;
+        while (order[zero] != 0) zero++;
+        int[] rotated = new int[n];
+        for (int i = 0; i < n; i++) rotated[i] = order[(zero + i) % n];
+        return rotated;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // KLASTERIRANJE
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Lloyd k-means s k = n / (3/4 maxSize) centara; dodaje klastere u out.
+     * @return Predstavnik svakog klastera (vrh najbliži centru)
+     */
+    private static int[] kMeans(EuclideanGraph g, int maxSize, List<int[]> out) {
+        int n = g.n;
+        int target = Math.max(2, maxSize * 3 / 4);
+        int k = (n + target - 1) / target;
+
+        // Početni centri: svaki (n / k)-ti vrh po Hilbertovoj krivulji
+        int[] hilbert = HilbertCurve.order(g);
+        double[] cx = new double[k];
+        double[] cy = new double[k];
+        for (int c = 0; c < k; c++) {
+            int v = hilbert[(int) ((long) c * n / k)];
+            cx[c] = g.x(v);
+            cy[c] = g.y(v);
+        }
+
+        int[] assignment = new int[n];
+        for (int iteration = 0; iteration < LLOYD_ITERATIONS; iteration++) {
+            KdTree centers = new KdTree(cx, cy);
+            IntStream.range(0, n).parallel().forEach(v -> assignment[v] = centers.knn(g.x(v), g.y(v), 1)[0]);
+
+            double[] sumX = new double[k];
+            double[] sumY = new double[k];
+            int[] count = new int[k];
+            for (int v = 0; v < n; v++) {
+                int c = assignment[v];
+                sumX[c] += g.x(v);
+                sumY[c] += g.y(v);
+                count[c]++;
+            }
+            // Prazan klaster zadržava stari centar
+            for (int c = 0; c < k; c++) {
+                if (count[c] > 0) {
+                    cx[c] = sumX[c] / count[c];
+                    cy[c] = sumY[c] / count[c];
+                }
+            }
+        }
+
+        int[][] members = groupBy(assignment, k);
+        List<Integer> representatives = new ArrayList<>();
+        DistanceMatrix d = g.minDistances();
+        for (int c = 0; c < k; c++) {
+            if (members[c].length == 0) continue;
+            int from = out.size();
+            bisect(members[c], d, maxSize, out);
+            // Predstavnik svakog dijela: vrh najbliži centru
+            for (int part = from; part < out.size(); part++) {
+                int best = -1;
+                double bestDist = Double.POSITIVE_INFINITY;
+                for (int v : out.get(part)) {
+                    double dist = Math.hypot(g.x(v) - cx[c], g.y(v) - cy[c]);
+                    if (best < 0 || dist < bestDist) {
+                        best = v;
+                        bestDist = dist;
+                    }
+                }
+                representatives.add(best);
+            }
+        }
+        return representatives.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[][] groupBy(int[] assignment, int k) {
+        int[] count = new int[k];
+        for (int c : assignment) count[c]++;
+        int[][] members = new int[k][];
+        for (int c = 0; c < k; c++) members[c] = new int[count[c]];
+        Arrays.fill(count, 0);
+        for (int v = 0; v < assignment.length; v++) {
+            int c = assignment[v];
+            members[c][count[c]++] = v;
+        }
+        return members;
+    }
+
+    /**
+     * Rekurzivna bisekcija: pivoti a (najdalji od prvog vrha) i b (najdalji od a), vrhovi
+     * se slažu po razlici udaljenosti do a i b i režu na broju vrhova bližih a,
+     * ograničeno na [1/4, 3/4] veličine. Prvi vrh svakog dijela je njegov pivot.
+     */
+    private static void bisect(int[] members, DistanceMatrix d, int maxSize, List<int[]> out) {
+        int size = members.length;
+        if (size <= maxSize) {
+            out.add(members);
+            return;
+        }
+
+        int a = farthest(d, members, members[0]);
+        int b = farthest(d, members, a);
+
+        double[] key = new double[size];
+        Integer[] byKey = new Integer[size];
+        int nearerA = 0;
+        for (int i = 0; i < size; i++) {
+            key[i] = distance(d, members[i], a) - distance(d, members[i], b);
+            byKey[i] = i;
+            if (key[i] <= 0) nearerA++;
+        }
+        Arrays.sort(byKey, (x, y) -> Double.compare(key[x], key[y]));
+        int cut = Math.max(Math.max(1, size / 4), Math.min(size - Math.max(1, size / 4), nearerA));
+
+        // Pivot ide na početak svog dijela
+        int[] left = new int[cut];
+        int[] right = new int[size - cut];
+        for (int i = 0; i < size; i++) {
+            int v = members[byKey[i]];
+            if (i < cut) left[i] = v;
+            else right[i - cut] = v;
+        }
+        moveToFront(left, a);
+        moveToFront(right, b);
+
+        bisect(left, d, maxSize, out);
+        bisect(right, d, maxSize, out);
+    }
+
+    private static int farthest(DistanceMatrix d, int[] members, int from) {
+        int best = from;
+        double bestDist = -1;
+        for (int v : members) {
+            double dist = distance(d, from, v);
+            if (dist > bestDist) {
+                best = v;
+                bestDist = dist;
+            }
+        }
+        return best;
+    }
+
+    private static void moveToFront(int[] part, int v) {
+        for (int i = 0; i < part.length; i++) {
+            if (part[i] == v) {
+                part[i] = part[0];
+                part[0] = v;
+                return;
+            }
+        }
+    }
+
+    // Klasteriranje ne ovisi o smjeru
+    private static double distance(DistanceMatrix d, int u, int v) {
+        return Math.min(d.get(u, v), d.get(v, u));
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // REDOSLIJED I PUTOVI
+    // ═══════════════════════════════════════════════════════════
+
+    /**
+     * Tura nad predstavnicima klastera; vraća indekse klastera redom.
+     */
+    private static int[] clusterTour(Graph g, int[] representatives) {
+        int k = representatives.length;
+        if (k <= 3) {
+            int[] order = new int[k];
+            for (int c = 0; c < k; c++) order[c] = c;
+            return order;
+        }
+
+        if (g instanceof EuclideanGraph) {
+            EuclideanGraph eg = (EuclideanGraph) g;
+            double[] xs = new double[k];
+            double[] ys = new double[k];
+            for (int c = 0; c < k; c++) {
+                xs[c] = eg.x(representatives[c]);
+                ys[c] = eg.y(representatives[c]);
+            }
+            EuclideanGraph centers = EuclideanGraph.of(xs, ys);
+            int[] order = HilbertCurve.order(centers);
+            LinKernighan.improve(order, centers);
+            return order;
+        }
+
+        DistanceMatrix d = g.minDistances();
+        DistanceMatrix between = new DistanceMatrix() {
+            @Override
+            public int size() {
+                return k;
+            }
+
+            @Override
+            public double get(int i, int j) {
+                return d.get(representatives[i], representatives[j]);
+            }
+        };
+        int[][] candidates = new int[k][];
+        IntStream.range(0, k).parallel().forEach(c -> candidates[c] = nearest(between, c, LinKernighan.CANDIDATES));
+
+        // Nearest neighbor kao početak
+        int[] order = new int[k];
+        boolean[] used = new boolean[k];
+        used[0] = true;
+        for (int i = 1; i < k; i++) {
+            int last = order[i - 1];
+            int best = -1;
+            for (int c = 0; c < k; c++) {
+                if (!used[c] && (best < 0 || between.get(last, c) < between.get(last, best))) best = c;
+            }
+            order[i] = best;
+            used[best] = true;
+        }
+        LinKernighan.improve(order, between, candidates);
+        return order;
+    }
+
+    // Do count najbližih klastera, uzlazno po udaljenosti
+    private static int[] nearest(DistanceMatrix d, int c, int count) {
+        int k = d.size();
+        Integer[] others = new Integer[k - 1];
+        for (int i = 0, j = 0; i < k; i++) {
+            if (i != c) others[j++] = i;
+        }
+        Arrays.sort(others, (x, y) -> Double.compare(d.get(c, x), d.get(c, y)));
+        int[] list = new int[Math.min(count, k - 1)];
+        for (int i = 0; i < list.length; i++) list[i] = others[i];
+        return list;
+    }
+
+    /**
+     * Najbliži par (u iz from, v iz to); u != avoidFrom i v != avoidTo osim ako je
+     * klaster jednočlan.
+     */
+    private static int[] closestPair(DistanceMatrix d, int[] from, int avoidFrom, int[] to, int avoidTo) {
+        int bestU = -1;
+        int bestV = -1;
+        double bestDist = Double.POSITIVE_INFINITY;
+        for (int u : from) {
+            if (u == avoidFrom && from.length > 1) continue;
+            for (int v : to) {
+                if (v == avoidTo && to.length > 1) continue;
+                double dist = d.get(u, v);
+                if (bestU < 0 || dist < bestDist) {
+                    bestU = u;
+                    bestV = v;
+                    bestDist = dist;
+                }
+            }
+        }
+        return new int[] {bestU, bestV};
+    }
+
+    // Optimalni put entry -> ostatak klastera -> exit; null ako ne postoji
+    private static int[] clusterPath(DistanceMatrix d, int[] cluster, int entry, int exit) {
+        if (cluster.length == 1) return new int[] {entry};
+
+        int[] inner = new int[cluster.length - 2];
+        int m = 0;
+        for (int v : cluster) {
+            if (v != entry && v != exit) inner[m++] = v;
+        }
+        int[] middle = new int[inner.length];
+        if (HeldKarpPath.solve(d, entry, inner, exit, middle) == Double.POSITIVE_INFINITY) return null;
+
+        int[] path = new int[cluster.length];
+        path[0] = entry;
+        System.arraycopy(middle, 0, path, 1, middle.length);
+        path[path.length - 1] = exit;
+        return path;
+    }
+}
@@ -1,7 +1,10 @@
 package heuristika;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 import utils.Result;
 import utils.*;
 
@@ -10,48 +13,168 @@ public class Greedy {
     public static Result solve(Graph g) {
         int n = g.n;
         if (n == 0) return new Result(0, new ArrayList<>());
-        
-        List<Integer> tour = new ArrayList<>();
+
+        DistanceMatrix minDist = g.minDistances();
+        int[] order = construct(g, 0, minDist, g.candidateLists(Graph.DEFAULT_CANDIDATES));
+
+        List<Integer> tour = new ArrayList<>(order.length + 1);
+        for (int v : order) tour.add(v);
+
+        // Return to start
+        tour.add(0);
+
+        return new Result(cycleCost(order, minDist), tour);
+    }
+
+    /**
+     * Greedy iz svakog početnog vrha (paralelno po jezgrama); najbolji ciklus
+     * se rotira tako da počinje i završava u 0.
+     */
+    public static Result solveMultiStart(Graph g) {
+        return solveMultiStart(g, g.n, 0);
+    }
+
+    /**
+     * @param starts Broj početnih vrhova; ako je manji od n, bira se slučajni podskup (uvijek uključuje 0)
+     * @param seed Seed za izbor podskupa
+     */
+    public static Result solveMultiStart(Graph g, int starts, long seed) {
+        int n = g.n;
+        if (n == 0) return new Result(0, new ArrayList<>());
+
+        DistanceMatrix minDist = g.minDistances();
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
+        int[] startVertices = startVertices(n, starts, seed);
+
+        // Svaki start je neovisan; pamti se samo cijena (ne n redoslijeda po n vrhova),
+        // a pobjednički se ponovno konstruira. Kod jednake cijene pobjeđuje raniji start.
+        double[] costs = new double[startVertices.length];
+        IntStream.range(0, startVertices.length).parallel().forEach(s -> {
+            int[] order = construct(g, startVertices[s], minDist, candidates);
+            costs[s] = order.length == n ? cycleCost(order, minDist) : Double.POSITIVE_INFINITY;
+        });
+
+        int best = 0;
+        for (int s = 1; s < costs.length; s++) {
+            if (costs[s] < costs[best]) best = s;
+        }
+
+        int[] order = construct(g, startVertices[best], minDist, candidates);
+        int zero = 0;
+        while (order[zero] != 0) zero++;
+
+        List<Integer> tour = new ArrayList<>(order.length + 1);
+        for (int i = 0; i < order.length; i++) {
+            tour.add(order[(zero + i) % order.length]);
+        }
+        tour.add(0);
+
+        return new Result(cycleCost(order, minDist), tour);
+    }
+
+    private static int[] startVertices(int n, int starts, long seed) {
+        if (starts >= n) return IntStream.range(0, n).toArray();
+
+        // Djelomični Fisher-Yates nad 1..n-1, 0 je uvijek prvi start
+        int[] perm = IntStream.range(0, n).toArray();
+        Random rand = new Random(seed);
+        int count = Math.max(1, starts);
+        for (int i = 1; i < count; i++) {
+            int j = i + rand.nextInt(n - i);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        return Arrays.copyOf(perm, count);
+    }
+
+    /**
+     * Nearest neighbor iz zadanog vrha; vraća redoslijed posjeta (bez povratka).
+     *
+     * Sljedeći vrh je prvi neposjećeni u listi kandidata trenutnog vrha (O(k)).
+     * Kad su svi kandidati posjećeni: k-d stablo za euklidski graf, inače prolaz samo
+     * kroz preostale vrhove, O(preostalih) (polje s brisanjem zamjenom s krajem, O(1))
+     */
+    private static int[] construct(Graph g, int start, DistanceMatrix minDist, int[][] candidates) {
+        int n = g.n;
+        int[] order = new int[n];
+        int size = 0;
+
         boolean[] visited = new boolean[n];
-        
-        int current = 0;
-        tour.add(current);
+
+        // Euklidski graf: najbliži neposjećeni preko k-d stabla umjesto punog prolaza
+        KdTree.Remaining unvisited = g instanceof EuclideanGraph
+                ? ((EuclideanGraph) g).spatialIndex().remaining()
+                : null;
+
+        // Preostali vrhovi: remaining[0..remainingCount), indexOf[v] = pozicija u polju
+        int[] remaining = new int[n];
+        int[] indexOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            remaining[v] = v;
+            indexOf[v] = v;
+        }
+        int remainingCount = n;
+
+        int current = start;
+        order[size++] = current;
         visited[current] = true;
-        
+        remainingCount = removeRemaining(remaining, indexOf, remainingCount, current);
+        if (unvisited != null) unvisited.remove(current);
+
         // Greedy Nearest Neighbor construction
         for (int i = 0; i < n - 1; i++) {
             int nextNode = -1;
-            double minDist = Double.MAX_VALUE;
-            
-            for (int j = 0; j < n; j++) {
-                if (!visited[j]) {
-                    // Using direct distance for the "Classic TSP Greedy" decision
-                    double d = g.distance_matrix[current][j];
-                    if (d < minDist) {
-                        minDist = d;
+
+            // Kandidati su sortirani po udaljenosti - prvi neposjećeni je najbliži
+            int[] list = candidates[current];
+            int p = 0;
+            while (p < list.length && visited[list[p]]) p++;
+            if (p < list.length) nextNode = list[p];
+
+            // Svi kandidati posjećeni: prostorni upit ili prolaz kroz preostale
+            if (nextNode == -1 && unvisited != null) {
+                nextNode = unvisited.nearest(current);
+            } else if (nextNode == -1) {
+                double best = Double.MAX_VALUE;
+                for (int r = 0; r < remainingCount; r++) {
+                    int j = remaining[r];
+                    double d = minDist.get(current, j);
+                    if (d < best || (d == best && j < nextNode)) {
+                        best = d;
                         nextNode = j;
                     }
                 }
             }
-            
+
             if (nextNode != -1) {
                 visited[nextNode] = true;
-                tour.add(nextNode);
+                remainingCount = removeRemaining(remaining, indexOf, remainingCount, nextNode);
+                if (unvisited != null) unvisited.remove(nextNode);
+                order[size++] = nextNode;
                 current = nextNode;
             }
         }
-        
-        // Return to start
-        tour.add(0);
-        
-        // Calculate cost using min_distances (shortest paths)
+
+        return size == n ? order : Arrays.copyOf(order, size);
+    }
+
+    private static int removeRemaining(int[] remaining, int[] indexOf, int count, int v) {
+        int i = indexOf[v];
+        int last = remaining[--count];
+        remaining[i] = last;
+        indexOf[last] = i;
+        remaining[count] = v;
+        indexOf[v] = count;
+        return count;
+    }
+
+    // Cijena zatvorenog ciklusa po min_distances (shortest paths)
+    private static double cycleCost(int[] order, DistanceMatrix minDist) {
         double totalCost = 0;
-        for (int i = 0; i < tour.size() - 1; i++) {
-            int u = tour.get(i);
-            int v = tour.get(i+1);
-            totalCost += g.min_distances[u][v];
+        for (int i = 0; i < order.length; i++) {
+            totalCost += minDist.get(order[i], order[(i + 1) % order.length]);
         }
-        
-        return new Result(totalCost, tour);
+        return totalCost;
     }
 }
@@ -0,0 +1,221 @@
+package heuristika;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import utils.*;
+
+/**
+ * Greedy-edge (greedy matching) konstrukcija nad min_distances.
+ *
+ * Bridovi se uzimaju od najjeftinijeg: brid (u, v) ulazi ako oba vrha imaju stupanj
+ * manji od 2 i nisu već u istom fragmentu (union-find), pa nema preranog ciklusa.
+ * Za razliku od nearest neighbora nema skupih "povrataka" na kraju ture.
+ *
+ * - kandidati: samo bridovi do k najbližih po vrhu ({@link Graph#candidateLists(int)}),
+ *   O(n * k) bridova umjesto O(n^2)
+ * - sortiranje: jedno long polje (težina u višim bitovima, indeks brida u nižim),
+ *   Arrays.parallelSort bez boxinga
+ * - fragmenti koji ostanu nakon kandidata spajaju se nearest-neighborom po krajevima
+ *
+ * Rezultat je kao kod {@link Greedy}: redoslijed vrhova od 0 s povratkom u 0,
+ * cijena po min_distances.
+ */
+public class GreedyEdge {
+
+    public static Result solve(Graph g) {
+        return solve(g, Graph.DEFAULT_CANDIDATES);
+    }
+
+    /**
+     * @param k Broj najbližih kandidata po vrhu
+     */
+    public static Result solve(Graph g, int k) {
+        int n = g.n;
+        if (n == 0) return new Result(0, new ArrayList<>());
+
+        DistanceMatrix minDist = g.minDistances();
+        int[] order = construct(g, k);
+
+        List<Integer> tour = new ArrayList<>(n + 1);
+        for (int v : order) tour.add(v);
+        tour.add(0);
+
+        double cost = 0;
+        for (int i = 0; i < n; i++) {
+            cost += minDist.get(order[i], order[(i + 1) % n]);
+        }
+        return new Result(cost, tour);
+    }
+
+    /**
+     * Redoslijed vrhova od 0 (bez povratka) za početna rješenja metaheuristika.
+     */
+    public static int[] order(Graph g) {
+        return g.n == 0 ? new int[0] : construct(g, Graph.DEFAULT_CANDIDATES);
+    }
+
+    private static int[] construct(Graph g, int k) {
+        int n = g.n;
+        DistanceMatrix d = g.minDistances();
+        int[][] candidates = g.candidateLists(k);
+
+        // Svaki neusmjereni brid jednom: (u, v) iz liste od u, osim ako je v < u i u je
+        // i u listi od v (tada je već dodan iz liste od v)
+        int edgeCount = 0;
+        for (int u = 0; u < n; u++) edgeCount += candidates[u].length;
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v : candidates[u]) {
+                if (v < u && contains(candidates[v], u)) continue;
+                from[m] = u;
+                to[m] = v;
+                m++;
+            }
+        }
+
+        // Težina >= 0, pa su bitovi doublea monotoni; najnižih indexBits bitova mantise
+        // zamjenjuje indeks brida (relativna preciznost i dalje ~2^-(52 - indexBits))
+        int indexBits = 64 - Long.numberOfLeadingZeros(Math.max(1, m - 1));
+        long indexMask = (1L << indexBits) - 1;
+        long[] keys = new long[m];
+        for (int e = 0; e < m; e++) {
+            double w = Math.min(d.get(from[e], to[e]), d.get(to[e], from[e]));
+            keys[e] = (Double.doubleToLongBits(w) & ~indexMask) | e;
+        }
+        Arrays.parallelSort(keys);
+
+        int[] adj0 = new int[n];
+        int[] adj1 = new int[n];
+        Arrays.fill(adj0, -1);
+        Arrays.fill(adj1, -1);
+        int[] degree = new int[n];
+        int[] fragment = new int[n];
+        int[] fragmentSize = new int[n];
+        for (int v = 0; v < n; v++) {
+            fragment[v] = v;
+            fragmentSize[v] = 1;
+        }
+
+        int added = 0;
+        for (int i = 0; i < m && added < n - 1; i++) {
+            if (Double.longBitsToDouble(keys[i] & ~indexMask) == Double.POSITIVE_INFINITY) break;
+            int e = (int) (keys[i] & indexMask);
+            int u = from[e];
+            int v = to[e];
+            if (degree[u] >= 2 || degree[v] >= 2) continue;
+            int ru = find(fragment, u);
+            int rv = find(fragment, v);
+            if (ru == rv) continue;
+
+            // Union po veličini
+            if (fragmentSize[ru] < fragmentSize[rv]) {
+                int tmp = ru;
+                ru = rv;
+                rv = tmp;
+            }
+            fragment[rv] = ru;
+            fragmentSize[ru] += fragmentSize[rv];
+
+            link(adj0, adj1, u, v);
+            link(adj0, adj1, v, u);
+            degree[u]++;
+            degree[v]++;
+            added++;
+        }
+
+        int[] order = joinFragments(d, adj0, adj1, degree);
+
+        int zero = 0;
+        while (order[zero] != 0) zero++;
+        int[] rotated = new int[n];
+        for (int i = 0; i < n; i++) rotated[i] = order[(zero + i) % n];
+        return rotated;
+    }
+
+    /**
+     * Obilazi fragmente (putove) redom: s kraja trenutnog fragmenta prelazi se na
+     * najbliži kraj nekog neobiđenog fragmenta.
+     */
+    private static int[] joinFragments(DistanceMatrix d, int[] adj0, int[] adj1, int[] degree) {
+        int n = degree.length;
+
+        // Krajevi fragmenata (stupanj < 2) s brisanjem zamjenom s krajem
+        int[] ends = new int[n];
+        int[] indexOf = new int[n];
+        Arrays.fill(indexOf, -1);
+        int endCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (degree[v] < 2) {
+                indexOf[v] = endCount;
+                ends[endCount++] = v;
+            }
+        }
+
+        int[] order = new int[n];
+        int size = 0;
+        int current = ends[0];
+        while (true) {
+            // Obiđi fragment od kraja current
+            endCount = removeEnd(ends, indexOf, endCount, current);
+            int prev = -1;
+            int v = current;
+            while (v >= 0) {
+                order[size++] = v;
+                int next = adj0[v] != prev ? adj0[v] : adj1[v];
+                if (next == prev) next = -1;
+                prev = v;
+                v = next;
+            }
+            endCount = removeEnd(ends, indexOf, endCount, prev);
+            if (endCount == 0) break;
+
+            int best = -1;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < endCount; i++) {
+                double dist = d.get(prev, ends[i]);
+                if (best < 0 || dist < bestDist) {
+                    best = ends[i];
+                    bestDist = dist;
+                }
+            }
+            current = best;
+        }
+        return order;
+    }
+
+    private static int removeEnd(int[] ends, int[] indexOf, int count, int v) {
+        int i = indexOf[v];
+        if (i < 0) return count;
+        int last = ends[--count];
+        ends[i] = last;
+        indexOf[last] = i;
+        indexOf[v] = -1;
+        return count;
+    }
+
+    private static void link(int[] adj0, int[] adj1, int u, int v) {
+        if (adj0[u] < 0) {
+            adj0[u] = v;
+        } else {
+            adj1[u] = v;
+        }
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static boolean contains(int[] list, int v) {
+        for (int x : list) {
+            if (x == v) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,225 @@
+package heuristika;
+
+import utils.DistanceMatrix;
+import utils.Graph;
+
+/**
+ * Lin-Kernighan lokalna pretraga (varijanta s nizom 2-opt poteza) nad cikličkom
+ * permutacijom, na min_distances.
+ *
+ * Potez promjenjive dubine: iz t1 i t2 = succ(t1) uklanja se brid (t1, t2); u svakom
+ * koraku dodaje se brid (t2, t3) za t3 među kandidatima od t2 i uklanja (t4, t3),
+ * t4 = pred(t3), što je jedan 2-opt preokret. Zatvaranje bridom (t4, t1) daje
+ * valjani ciklus pa se nakon svakog koraka zna dobitak zatvaranja. Lanac se
+ * nastavlja dok je djelomični dobitak veći od najboljeg dobitka zatvaranja (najviše
+ * MAX_DEPTH koraka), a zadržava se do koraka s najvećim dobitkom; ostatak se poništava.
+ * Uklonjeni brid se u istom lancu ne dodaje ponovno niti se dodani uklanja.
+ *
+ * - kandidati: 5 najbližih (Graph.candidateLists(5)), širina pretrage 5 / 3 / 1 po razini
+ * - don't-look bitovi: red aktivnih vrhova kao u {@link LocalSearch}
+ * - tour: {@link Tour#of(int[])} - polje za manje instance, dvorazinska lista
+ *   (preokret O(sqrt(n))) od {@link Tour#TWO_LEVEL_MIN_N} vrhova
+ *
+ * Pretpostavlja simetrične udaljenosti.
+ */
+public final class LinKernighan {
+
+    public static final int CANDIDATES = 5;
+
+    private static final double EPS = 1e-10;
+    private static final int MAX_DEPTH = 50;
+    private static final int[] BREADTH = {5, 3};
+
+    private LinKernighan() {
+    }
+
+    /**
+     * LK nad min_distances grafa s 5 najbližih kandidata.
+     */
+    public static double improve(int[] tour, Graph g) {
+        return improve(tour, g.minDistances(), g.candidateLists(CANDIDATES));
+    }
+
+    /**
+     * @param tour Ciklička permutacija vrhova (mijenja se na mjestu)
+     * @param d Simetrične udaljenosti
+     * @param candidates candidates[v] = bliski vrhovi od v, uzlazno po udaljenosti
+     * @return Ukupna promjena cijene (<= 0)
+     */
+    public static double improve(int[] tour, DistanceMatrix d, int[][] candidates) {
+        if (tour.length < 5) {
+            return LocalSearch.twoOpt(tour, d, candidates);
+        }
+        Search search = new Search(tour, d, candidates);
+        double total = search.run();
+        search.writeBack(tour);
+        return total;
+    }
+
+    private static final class Search {
+        final DistanceMatrix d;
+        final int[][] candidates;
+        final int n;
+
+        final Tour tour;
+        // Lanac se gradi u suprotnom smjeru ture (t2 = prethodnik od t1)
+        boolean backward;
+
+        // Kružni red aktivnih vrhova (don't-look bitovi)
+        final int[] queue;
+        final boolean[] inQueue;
+        int head;
+        int count;
+
+        // Primijenjeni koraci trenutnog lanca: preokret puta from .. to (t2 .. t4),
+        // dodan brid (from, t3), uklonjen (to, t3); prvi uklonjeni brid je (t1, firstT2)
+        final int[] stepFrom = new int[MAX_DEPTH];
+        final int[] stepTo = new int[MAX_DEPTH];
+        final int[] stepT3 = new int[MAX_DEPTH];
+        int steps;
+        int firstT1;
+        int firstT2;
+
+        Search(int[] tour, DistanceMatrix d, int[][] candidates) {
+            this.d = d;
+            this.candidates = candidates;
+            this.n = tour.length;
+            this.tour = Tour.of(tour);
+            this.queue = new int[n];
+            this.inQueue = new boolean[n];
+        }
+
+        void writeBack(int[] order) {
+            System.arraycopy(tour.toArray(order[0]), 0, order, 0, n);
+        }
+
+        double run() {
+            for (int v = 0; v < n; v++) push(v);
+
+            double total = 0;
+            while (count > 0) {
+                int t1 = queue[head];
+                head = (head + 1) % n;
+                count--;
+                inQueue[t1] = false;
+
+                double gain = improveFrom(t1);
+                if (gain > 0) {
+                    total -= gain;
+                    push(t1);
+                }
+            }
+            return total;
+        }
+
+        void push(int v) {
+            if (inQueue[v]) return;
+            inQueue[v] = true;
+            queue[(head + count) % n] = v;
+            count++;
+        }
+
+        int next(int v) {
+            return backward ? tour.prev(v) : tour.next(v);
+        }
+
+        int prev(int v) {
+            return backward ? tour.next(v) : tour.prev(v);
+        }
+
+        // Lanac iz t1 u oba smjera (drugi smjer = ista pretraga uz obrnutu orijentaciju)
+        double improveFrom(int t1) {
+            for (int dir = 0; dir < 2; dir++) {
+                backward = dir == 1;
+                int t2 = next(t1);
+                steps = 0;
+                firstT1 = t1;
+                firstT2 = t2;
+                double gain = step(t1, t2, d.get(t1, t2), 0, 0);
+                if (gain > EPS) {
+                    push(t2);
+                    for (int s = 0; s < steps; s++) {
+                        push(stepFrom[s]);
+                        push(stepTo[s]);
+                        push(stepT3[s]);
+                    }
+                    return gain;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Jedan korak lanca: brid (t1, t2) je uklonjen, G je djelomični dobitak.
+         * Vraća dobitak veći od best (poteze do najboljeg koraka ostavlja primijenjene)
+         * ili 0 uz poništene sve poteze ove i dubljih razina.
+         */
+        double step(int t1, int t2, double G, int depth, double best) {
+            // Lanac ne može nadmašiti best ako djelomični dobitak nije veći od njega
+            if (G <= best + EPS) return 0;
+
+            int breadth = depth < BREADTH.length ? BREADTH[depth] : 1;
+            int tried = 0;
+            int succT2 = next(t2);
+
+            for (int t3 : candidates[t2]) {
+                if (tried == breadth) break;
+                double g1 = G - d.get(t2, t3);
+                if (g1 <= EPS) break;
+                if (t3 == t1 || t3 == succT2 || t3 == t2) continue;
+
+                // LK pravilo: uklonjeni brid se ne dodaje ponovno, dodani se ne uklanja
+                int t4 = prev(t3);
+                if (wasRemoved(t2, t3) || wasAdded(t4, t3)) continue;
+                tried++;
+
+                // Ukloni (t4, t3), dodaj (t2, t3): preokret puta t2 .. t4
+                reverse(t2, t4);
+                stepFrom[steps] = t2;
+                stepTo[steps] = t4;
+                stepT3[steps] = t3;
+                steps++;
+
+                double gainAfter = g1 + d.get(t4, t3);
+                double close = gainAfter - d.get(t4, t1);
+                double target = Math.max(best, close);
+
+                double deeper = depth + 1 < MAX_DEPTH ? step(t1, t4, gainAfter, depth + 1, target) : 0;
+                if (deeper > 0) return deeper;
+                if (close > best + EPS) return close;
+
+                steps--;
+                reverse(t4, t2);
+            }
+            return 0;
+        }
+
+        boolean wasRemoved(int a, int b) {
+            if (sameEdge(a, b, firstT1, firstT2)) return true;
+            for (int s = 0; s < steps; s++) {
+                if (sameEdge(a, b, stepTo[s], stepT3[s])) return true;
+            }
+            return false;
+        }
+
+        boolean wasAdded(int a, int b) {
+            for (int s = 0; s < steps; s++) {
+                if (sameEdge(a, b, stepFrom[s], stepT3[s])) return true;
+            }
+            return false;
+        }
+
+        static boolean sameEdge(int a, int b, int u, int v) {
+            return (a == u && b == v) || (a == v && b == u);
+        }
+
+        // Preokreće put from -> ... -> to u smjeru lanca
+        void reverse(int from, int to) {
+            if (backward) {
+                tour.reverse(to, from);
+            } else {
+                tour.reverse(from, to);
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package heuristika;
+
+import utils.DistanceMatrix;
+
+/**
+ * Zajednička lokalna pretraga nad cikličkom permutacijom vrhova (min_distances
+ * reprezentacija - šetnja je najkraći put između uzastopnih vrhova).
+ *
+ * Operatori:
+ * - 2-opt: za vrh a i njegovog sljedbenika/prethodnika razmatraju se samo bridovi
+ *   (a, c) za c među kandidatima od a, dok je d(a, c) manji od brida koji se uklanja
+ * - Or-opt: segment od 1 do 3 vrha s krajem u a premješta se (i po potrebi
+ *   okreće) uz kandidata c od a, dok je d(a, c) manji od dobitka uklanjanja segmenta
+ *
+ * Don't-look bitovi: vrhovi se obrađuju iz reda aktivnih; vrh koji ne nađe
+ * poboljšanje ispada iz reda i vraća se tek kad se promijeni neki od njegovih
+ * bridova (krajevi primijenjenog poteza). Prolaz je zato O(n * k) po poboljšanju
+ * u okolini, a ne O(n^2) po prolazu.
+ *
+ * Pretpostavlja simetrične udaljenosti (preokret segmenta ne mijenja njegovu cijenu).
+ * Svi operatori mijenjaju tour na mjestu i vraćaju ukupnu promjenu cijene (<= 0).
+ */
+public final class LocalSearch {
+
+    private static final double EPS = 1e-10;
+    private static final int MAX_SEGMENT = 3;
+
+    private LocalSearch() {
+    }
+
+    /**
+     * 2-opt s listama kandidata i don't-look bitovima.
+     */
+    public static double twoOpt(int[] tour, DistanceMatrix d, int[][] candidates) {
+        return new Search(tour, d, candidates).run(true, false);
+    }
+
+    /**
+     * Or-opt (premještanje segmenata duljine 1-3) s listama kandidata i don't-look bitovima.
+     */
+    public static double orOpt(int[] tour, DistanceMatrix d, int[][] candidates) {
+        return new Search(tour, d, candidates).run(false, true);
+    }
+
+    /**
+     * 2-opt i Or-opt u istom redu aktivnih vrhova, do lokalnog optimuma za oba.
+     */
+    public static double twoOptOrOpt(int[] tour, DistanceMatrix d, int[][] candidates) {
+        return new Search(tour, d, candidates).run(true, true);
+    }
+
+    /**
+     * Cijena zatvorenog ciklusa.
+     */
+    public static double cost(int[] tour, DistanceMatrix d) {
+        int n = tour.length;
+        double cost = 0;
+        for (int i = 0; i < n; i++) {
+            cost += d.get(tour[i], tour[(i + 1) % n]);
+        }
+        return cost;
+    }
+
+    // Stanje jedne pretrage: pozicije vrhova i red aktivnih vrhova
+    private static final class Search {
+        final int[] tour;
+        final int[] pos;
+        final DistanceMatrix d;
+        final int[][] candidates;
+        final int n;
+
+        // Kružni red aktivnih vrhova; inQueue = obrnuti don't-look bit
+        final int[] queue;
+        final boolean[] inQueue;
+        int head;
+        int count;
+
+        final int[] segment = new int[MAX_SEGMENT];
+
+        Search(int[] tour, DistanceMatrix d, int[][] candidates) {
+            this.tour = tour;
+            this.d = d;
+            this.candidates = candidates;
+            this.n = tour.length;
+            this.pos = new int[n];
+            for (int i = 0; i < n; i++) pos[tour[i]] = i;
+            this.queue = new int[n];
+            this.inQueue = new boolean[n];
+        }
+
+        double run(boolean twoOpt, boolean orOpt) {
+            if (n < 4) return 0;
+
+            for (int i = 0; i < n; i++) push(tour[i]);
+
+            double total = 0;
+            while (count > 0) {
+                int a = queue[head];
+                head = (head + 1) % n;
+                count--;
+                inQueue[a] = false;
+
+                double delta = 0;
+                if (twoOpt) delta = twoOptAt(a);
+                if (delta == 0 && orOpt) delta = orOptAt(a);
+                if (delta < 0) {
+                    total += delta;
+                    push(a);
+                }
+            }
+            return total;
+        }
+
+        void push(int v) {
+            if (inQueue[v]) return;
+            inQueue[v] = true;
+            queue[(head + count) % n] = v;
+            count++;
+        }
+
+        int at(int i) {
+            return tour[((i % n) + n) % n];
+        }
+
+        // Najviše jedan poboljšavajući 2-opt potez koji uključuje vrh a
+        double twoOptAt(int a) {
+            int i = pos[a];
+            int succA = at(i + 1);
+            int predA = at(i - 1);
+            double dSucc = d.get(a, succA);
+            double dPred = d.get(predA, a);
+
+            for (int c : candidates[a]) {
+                double dac = d.get(a, c);
+                if (dac >= dSucc && dac >= dPred) break;
+
+                int j = pos[c];
+                // Sljedbenici: (a, succA) + (c, succC) -> (a, c) + (succA, succC)
+                if (dac < dSucc) {
+                    int succC = at(j + 1);
+                    if (c != succA && succC != a) {
+                        double delta = dac + d.get(succA, succC) - dSucc - d.get(c, succC);
+                        if (delta < -EPS) {
+                            reverse((i + 1) % n, j);
+                            push(succA);
+                            push(c);
+                            push(succC);
+                            return delta;
+                        }
+                    }
+                }
+                // Prethodnici: (predA, a) + (predC, c) -> (c, a) + (predC, predA)
+                if (dac < dPred) {
+                    int predC = at(j - 1);
+                    if (c != predA && predC != a) {
+                        double delta = dac + d.get(predC, predA) - dPred - d.get(predC, c);
+                        if (delta < -EPS) {
+                            reverse(j, (i - 1 + n) % n);
+                            push(predA);
+                            push(c);
+                            push(predC);
+                            return delta;
+                        }
+                    }
+                }
+            }
+            return 0;
+        }
+
+        // Najviše jedan poboljšavajući Or-opt potez za segment kojem je a kraj
+        double orOptAt(int a) {
+            int ia = pos[a];
+            for (int len = 1; len <= MAX_SEGMENT && len + 3 <= n; len++) {
+                // Segment koji počinje u a, pa (za len > 1) segment koji završava u a
+                for (int side = 0; side < (len == 1 ? 1 : 2); side++) {
+                    int start = side == 0 ? ia : (ia - len + 1 + n) % n;
+                    double delta = tryMoveSegment(start, len, a);
+                    if (delta < 0) return delta;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Segment tour[start .. start+len-1] (ciklički) s krajem a: traži umetanje
+         * tako da a postane susjed svom kandidatu c.
+         */
+        double tryMoveSegment(int start, int len, int a) {
+            int s1 = at(start);
+            int sL = at(start + len - 1);
+            int p = at(start - 1);
+            int q = at(start + len);
+            int y = a == s1 ? sL : s1;
+
+            double removeGain = d.get(p, s1) + d.get(sL, q) - d.get(p, q);
+            if (removeGain <= EPS) return 0;
+
+            for (int c : candidates[a]) {
+                double dac = d.get(a, c);
+                if (dac >= removeGain) break;
+                if (inSegment(pos[c], start, len)) continue;
+
+                // c, a .. y, e: umetanje između c i njegovog sljedbenika
+                int e = at(pos[c] + 1);
+                if (!inSegment(pos[e], start, len)) {
+                    double delta = dac + d.get(y, e) - d.get(c, e) - removeGain;
+                    if (delta < -EPS) {
+                        moveSegment(start, len, c, e, a != s1);
+                        touched(p, q, s1, sL, c, e);
+                        return delta;
+                    }
+                }
+
+                // b, y .. a, c: umetanje između prethodnika od c i c
+                int b = at(pos[c] - 1);
+                if (!inSegment(pos[b], start, len)) {
+                    double delta = d.get(b, y) + dac - d.get(b, c) - removeGain;
+                    if (delta < -EPS) {
+                        moveSegment(start, len, b, c, a == s1);
+                        touched(p, q, s1, sL, b, c);
+                        return delta;
+                    }
+                }
+            }
+            return 0;
+        }
+
+        boolean inSegment(int position, int start, int len) {
+            return (position - start + n) % n < len;
+        }
+
+        void touched(int p, int q, int s1, int sL, int u, int w) {
+            push(p);
+            push(q);
+            push(s1);
+            push(sL);
+            push(u);
+            push(w);
+        }
+
+        /**
+         * Premješta segment na pozicijama [start, start+len) između susjednih vrhova
+         * u i w (w = sljedbenik od u). Pomiču se elementi s kraće strane ciklusa.
+         */
+        void moveSegment(int start, int len, int u, int w, boolean reversed) {
+            for (int t = 0; t < len; t++) {
+                segment[reversed ? len - 1 - t : t] = at(start + t);
+            }
+
+            int forward = (pos[u] - (start + len) + 2 * n) % n;   // q .. u
+            int backward = (start - 1 - pos[w] + 2 * n) % n;      // w .. p
+            int first;
+            if (forward <= backward) {
+                // q .. u ulijevo za len, segment iza njih
+                for (int k = 0; k <= forward; k++) {
+                    place((start + k) % n, at(start + len + k));
+                }
+                first = (start + forward + 1) % n;
+            } else {
+                // w .. p udesno za len, segment ispred njih
+                int from = (start - 1 - backward + n) % n;
+                for (int k = backward; k >= 0; k--) {
+                    place((from + k + len) % n, at(from + k));
+                }
+                first = from;
+            }
+            for (int t = 0; t < len; t++) {
+                place((first + t) % n, segment[t]);
+            }
+        }
+
+        void place(int position, int v) {
+            tour[position] = v;
+            pos[v] = position;
+        }
+
+        // Preokreće ciklički segment od pozicije from do pozicije to (uključivo).
+        // Za simetrične udaljenosti isti ciklus daje i preokretanje komplementa, pa se bira kraći.
+        void reverse(int from, int to) {
+            int len = ((to - from + n) % n) + 1;
+            if (2 * len > n && len < n) {
+                int newFrom = (to + 1) % n;
+                to = (from - 1 + n) % n;
+                from = newFrom;
+                len = n - len;
+            }
+            for (int s = 0; s < len / 2; s++) {
+                int l = (from + s) % n;
+                int r = (to - s + n) % n;
+                int tmp = tour[l];
+                tour[l] = tour[r];
+                tour[r] = tmp;
+                pos[tour[l]] = l;
+                pos[tour[r]] = r;
+            }
+        }
+    }
+}
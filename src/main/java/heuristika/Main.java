@@ -47,7 +47,7 @@ public class Main {
             if (i % 20 == 0) System.out.println("Iteration: " + i);
 
             double[][] w = GraphGenerator.generateRandomGraph(n);
-            Graph g = new Graph(w);
+            Graph g = new Graph(w, DistanceMatrix.Storage.SYMMETRIC);
 
             // --- Optimal (Held-Karp) ---
             long optStart = System.nanoTime();
@@ -159,7 +159,7 @@ public class Main {
      */
     private static Result randomPermutationMinWalk(Graph g) {
         int n = g.n;
-        double[][] minDist = g.min_distances;
+        DistanceMatrix minDist = g.minDistances();
         
         // Generiraj random permutaciju čvorova 1..n-1 (0 je uvijek start)
         List<Integer> nodes = new ArrayList<>();
@@ -177,7 +177,7 @@ public class Main {
         // Izračunaj cost koristeći min_distances (shortest paths)
         double cost = 0;
         for (int i = 0; i < tour.size() - 1; i++) {
-            cost += minDist[tour.get(i)][tour.get(i + 1)];
+            cost += minDist.get(tour.get(i), tour.get(i + 1));
         }
         
         return new Result(cost, tour);
@@ -0,0 +1,355 @@
+package heuristika;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import utils.*;
+
+/**
+ * Konstrukcija preko minimalnog razapinjućeg stabla (MST) nad min_distances.
+ *
+ * 1. Prim s primitivnom indeksiranom hrpom (decrease-key), O(n^2 log n)
+ * 2. Dva kandidata za ciklus, vraća se jeftiniji:
+ *    - double-tree: preorder obilazak stabla (udvostručeno stablo pa prečaci)
+ *    - Christofides-stil: stablo + pohlepno sparivanje vrhova neparnog stupnja
+ *      (parovi iz listi kandidata, umjesto egzaktnog sparivanja), Eulerov ciklus i prečaci
+ * 3. Težina MST-a je donja ograda: optimalna zatvorena šetnja bez jednog brida je
+ *    razapinjući put, a on nije lakši od MST-a.
+ *
+ * min_distances je metričko zatvorenje, pa prečaci ne povećavaju cijenu i
+ * double-tree ciklus je najviše 2 * MST <= 2 * OPT. Kod usmjerenih grafova stablo
+ * se gradi nad min(d(u, v), d(v, u)), što ograda i dalje vrijedi, a cijena se računa
+ * u stvarnom smjeru.
+ *
+ * Rezultat je kao kod {@link Greedy}: redoslijed vrhova od 0 s povratkom u 0,
+ * cijena po min_distances (šetnja = najkraći putevi između uzastopnih vrhova).
+ */
+public class SpanningTreeWalk {
+
+    public static BoundedResult solve(Graph g) {
+        int n = g.n;
+        if (n == 0) return new BoundedResult(0, new ArrayList<>(), 0);
+
+        DistanceMatrix minDist = g.minDistances();
+        int[] parent = new int[n];
+        double mstWeight = prim(minDist, parent);
+
+        int[] doubleTree = preorder(parent);
+        int[] matched = shortcut(eulerCircuit(parent, greedyMatching(g, parent)), n);
+
+        double doubleTreeCost = cycleCost(doubleTree, minDist);
+        double matchedCost = cycleCost(matched, minDist);
+        int[] order = matchedCost < doubleTreeCost ? matched : doubleTree;
+
+        List<Integer> tour = new ArrayList<>(n + 1);
+        for (int v : order) tour.add(v);
+        tour.add(0);
+
+        return new BoundedResult(Math.min(matchedCost, doubleTreeCost), tour, mstWeight);
+    }
+
+    /**
+     * Redoslijed vrhova (bez povratka) za početna rješenja metaheuristika.
+     */
+    public static int[] order(Graph g) {
+        List<Integer> tour = solve(g).tour;
+        int[] order = new int[Math.max(0, tour.size() - 1)];
+        for (int i = 0; i < order.length; i++) order[i] = tour.get(i);
+        return order;
+    }
+
+    /**
+     * Prim iz vrha 0; parent[v] = roditelj u stablu (-1 za korijen).
+     * @return Težina stabla
+     */
+    private static double prim(DistanceMatrix d, int[] parent) {
+        int n = d.size();
+        double[] key = new double[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        key[0] = 0;
+        heap.offer(0, 0);
+
+        double total = 0;
+        int added = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            inTree[u] = true;
+            total += key[u];
+            added++;
+
+            for (int v = 0; v < n; v++) {
+                if (inTree[v]) continue;
+                double w = Math.min(d.get(u, v), d.get(v, u));
+                if (w < key[v]) {
+                    key[v] = w;
+                    parent[v] = u;
+                    heap.offer(v, w);
+                }
+            }
+        }
+
+        if (added < n) {
+            throw new IllegalStateException("Graph is not connected: " + (n - added) + " vertices unreachable from 0");
+        }
+        return total;
+    }
+
+    // Djeca u CSR obliku: children[childStart[v] .. childStart[v + 1])
+    private static int[][] children(int[] parent) {
+        int n = parent.length;
+        int[] childStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) childStart[parent[v] + 1]++;
+        }
+        for (int v = 0; v < n; v++) childStart[v + 1] += childStart[v];
+
+        int[] children = new int[Math.max(0, n - 1)];
+        int[] fill = Arrays.copyOf(childStart, n);
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) children[fill[parent[v]]++] = v;
+        }
+        return new int[][] {childStart, children};
+    }
+
+    private static int[] preorder(int[] parent) {
+        int n = parent.length;
+        int[][] tree = children(parent);
+        int[] childStart = tree[0];
+        int[] children = tree[1];
+
+        int[] order = new int[n];
+        int size = 0;
+        int[] stack = new int[n];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int v = stack[--top];
+            order[size++] = v;
+            // Obrnutim redom na stog, da se djeca obilaze redom
+            for (int e = childStart[v + 1] - 1; e >= childStart[v]; e--) {
+                stack[top++] = children[e];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Pohlepno sparivanje vrhova neparnog stupnja u stablu: parovi iz listi kandidata
+     * uzlazno po udaljenosti, a preostali vrhovi s najbližim preostalim.
+     * @return mate[v] = par od v, -1 za vrhove parnog stupnja
+     */
+    private static int[] greedyMatching(Graph g, int[] parent) {
+        int n = parent.length;
+        DistanceMatrix d = g.minDistances();
+
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) {
+                degree[v]++;
+                degree[parent[v]]++;
+            }
+        }
+        boolean[] odd = new boolean[n];
+        for (int v = 0; v < n; v++) odd[v] = (degree[v] & 1) == 1;
+
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
+        List<int[]> pairs = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            if (!odd[u]) continue;
+            for (int v : candidates[u]) {
+                if (odd[v] && u < v) pairs.add(new int[] {u, v});
+            }
+        }
+        double[] weight = new double[pairs.size()];
+        Integer[] byWeight = new Integer[pairs.size()];
+        for (int p = 0; p < weight.length; p++) {
+            int[] pair = pairs.get(p);
+            weight[p] = Math.min(d.get(pair[0], pair[1]), d.get(pair[1], pair[0]));
+            byWeight[p] = p;
+        }
+        Arrays.sort(byWeight, (a, b) -> Double.compare(weight[a], weight[b]));
+
+        int[] mate = new int[n];
+        Arrays.fill(mate, -1);
+        for (int p : byWeight) {
+            int u = pairs.get(p)[0];
+            int v = pairs.get(p)[1];
+            if (mate[u] < 0 && mate[v] < 0) {
+                mate[u] = v;
+                mate[v] = u;
+            }
+        }
+
+        // Neparnih vrhova je paran broj, pa se ostatak uvijek spari
+        int[] left = new int[n];
+        int leftCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (odd[v] && mate[v] < 0) left[leftCount++] = v;
+        }
+        for (int i = 0; i < leftCount; i++) {
+            int u = left[i];
+            if (mate[u] >= 0) continue;
+            int best = -1;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (int j = i + 1; j < leftCount; j++) {
+                int v = left[j];
+                if (mate[v] >= 0) continue;
+                double dist = Math.min(d.get(u, v), d.get(v, u));
+                if (best < 0 || dist < bestDist) {
+                    best = v;
+                    bestDist = dist;
+                }
+            }
+            mate[u] = best;
+            mate[best] = u;
+        }
+        return mate;
+    }
+
+    /**
+     * Hierholzer nad multigrafom stablo + sparivanje (svi stupnjevi parni), iz vrha 0.
+     */
+    private static int[] eulerCircuit(int[] parent, int[] mate) {
+        int n = parent.length;
+        List<int[]> edges = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) edges.add(new int[] {v, parent[v]});
+            if (mate[v] > v) edges.add(new int[] {v, mate[v]});
+        }
+        int m = edges.size();
+
+        int[] start = new int[n + 1];
+        for (int[] e : edges) {
+            start[e[0] + 1]++;
+            start[e[1] + 1]++;
+        }
+        for (int v = 0; v < n; v++) start[v + 1] += start[v];
+        int[] incident = new int[2 * m];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int e = 0; e < m; e++) {
+            incident[fill[edges.get(e)[0]]++] = e;
+            incident[fill[edges.get(e)[1]]++] = e;
+        }
+
+        boolean[] used = new boolean[m];
+        int[] pointer = Arrays.copyOf(start, n);
+        int[] circuit = new int[m + 1];
+        int size = 0;
+        int[] stack = new int[m + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int v = stack[top - 1];
+            while (pointer[v] < start[v + 1] && used[incident[pointer[v]]]) pointer[v]++;
+            if (pointer[v] == start[v + 1]) {
+                circuit[size++] = v;
+                top--;
+            } else {
+                int e = incident[pointer[v]++];
+                used[e] = true;
+                int[] edge = edges.get(e);
+                stack[top++] = edge[0] == v ? edge[1] : edge[0];
+            }
+        }
+        return Arrays.copyOf(circuit, size);
+    }
+
+    // Prvi posjeti duž ciklusa (prečaci preko već posjećenih vrhova)
+    private static int[] shortcut(int[] circuit, int n) {
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int size = 0;
+        for (int v : circuit) {
+            if (!seen[v]) {
+                seen[v] = true;
+                order[size++] = v;
+            }
+        }
+        return order;
+    }
+
+    private static double cycleCost(int[] order, DistanceMatrix minDist) {
+        double cost = 0;
+        for (int i = 0; i < order.length; i++) {
+            cost += minDist.get(order[i], order[(i + 1) % order.length]);
+        }
+        return cost;
+    }
+
+    /**
+     * Binarna min-hrpa nad vrhovima 0..n-1 s decrease-key (position[v] = indeks u hrpi).
+     */
+    private static final class IndexedMinHeap {
+        private final int[] heap;
+        private final int[] position;
+        private final double[] keys;
+        private int size;
+
+        IndexedMinHeap(int n) {
+            heap = new int[n];
+            position = new int[n];
+            keys = new double[n];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        // Dodaje v ili mu smanjuje ključ
+        void offer(int v, double key) {
+            int i = position[v];
+            if (i < 0) {
+                i = size++;
+                heap[i] = v;
+                position[v] = i;
+            }
+            keys[v] = key;
+            siftUp(i);
+        }
+
+        int pop() {
+            int top = heap[0];
+            position[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[heap[parent]] <= keys[v]) break;
+                heap[i] = heap[parent];
+                position[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            position[v] = i;
+        }
+
+        private void siftDown(int i) {
+            int v = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+                if (keys[v] <= keys[heap[child]]) break;
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = v;
+            position[v] = i;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package heuristika;
+
+/**
+ * Ciklička tura (permutacija vrhova 0..n-1) za lokalnu pretragu s preokretima segmenata.
+ *
+ * Implementacije:
+ * - {@link ArrayTour}: polje s pozicijama; next/prev/between O(1), preokret O(n)
+ * - {@link TwoLevelTour}: dvorazinska dvostruko povezana lista; next/prev/between O(1),
+ *   preokret O(sqrt(n))
+ *
+ * Preokret puta može se izvesti i kao preokret komplementa, što daje isti ciklus
+ * u suprotnom smjeru; implementacije zato same prate smjer, a pozivatelj vidi
+ * uvijek isti ciklus. Pretpostavlja se da smjer nije bitan (simetrične udaljenosti).
+ */
+public interface Tour {
+
+    /**
+     * Od ovog broja vrhova {@link #of(int[])} vraća {@link TwoLevelTour}.
+     */
+    int TWO_LEVEL_MIN_N = 5000;
+
+    int size();
+
+    int next(int v);
+
+    int prev(int v);
+
+    /**
+     * Je li b na putu a -> ... -> c (uključivo krajeve).
+     */
+    boolean between(int a, int b, int c);
+
+    /**
+     * Preokreće put from -> ... -> to: nakon poziva je next(prev_staro(from)) = to
+     * i next(from) = next_staro(to).
+     */
+    void reverse(int from, int to);
+
+    /**
+     * Redoslijed vrhova od zadanog vrha.
+     */
+    default int[] toArray(int start) {
+        int[] order = new int[size()];
+        int v = start;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = v;
+            v = next(v);
+        }
+        return order;
+    }
+
+    static Tour of(int[] order) {
+        return order.length >= TWO_LEVEL_MIN_N ? new TwoLevelTour(order) : new ArrayTour(order);
+    }
+}
@@ -0,0 +1,313 @@
+package heuristika;
+
+/**
+ * Dvorazinska dvostruko povezana lista (Fredman i sur.): tura je podijeljena na
+ * segmente od ~sqrt(n) uzastopnih vrhova.
+ *
+ * - vrh: susjedi unutar segmenta (nodeNext / nodePrev, -1 na krajevima) i rang u segmentu
+ * - segment: prvi i zadnji vrh, zastavica preokreta, susjedni segmenti i rang u prstenu
+ *
+ * next/prev/between su O(1) (rang segmenta pa rang vrha). Preokret puta:
+ * - put unutar jednog segmenta: preokret podliste, O(sqrt(n))
+ * - inače: segmenti se razdvoje tako da put počinje i završava na granici segmenata,
+ *   zatim se niz segmenata (ili kraći komplement) preokrene mijenjanjem zastavica i
+ *   veza, O(sqrt(n))
+ * Razdvajanja povećavaju broj segmenata; kad ih je dvostruko više od početnog,
+ * struktura se gradi ponovno (O(n), amortizirano O(sqrt(n)) po preokretu).
+ *
+ * Sve je u int/boolean poljima, bez objekata po vrhu.
+ */
+public final class TwoLevelTour implements Tour {
+
+    private final int n;
+    private final int groupSize;
+    private final int maxSegments;
+
+    // Vrhovi
+    private final int[] nodeNext;
+    private final int[] nodePrev;
+    private final int[] nodeSeg;
+    private final int[] nodeRank;
+
+    // Segmenti (indeksi 0..segCount-1)
+    private final int[] segFirst;
+    private final int[] segLast;
+    private final int[] segNext;
+    private final int[] segPrev;
+    private final int[] segRank;
+    private final boolean[] segReversed;
+    private int segCount;
+
+    // Logički smjer je obrnut od sirovog (raw) smjera strukture
+    private boolean flipped;
+
+    private final int[] buffer;
+
+    public TwoLevelTour(int[] order) {
+        this.n = order.length;
+        this.groupSize = Math.max(8, (int) Math.sqrt(n));
+        int initial = (n + groupSize - 1) / groupSize;
+        this.maxSegments = Math.max(2 * initial, initial + 4);
+        int capacity = maxSegments + 4;
+
+        this.nodeNext = new int[n];
+        this.nodePrev = new int[n];
+        this.nodeSeg = new int[n];
+        this.nodeRank = new int[n];
+        this.segFirst = new int[capacity];
+        this.segLast = new int[capacity];
+        this.segNext = new int[capacity];
+        this.segPrev = new int[capacity];
+        this.segRank = new int[capacity];
+        this.segReversed = new boolean[capacity];
+        this.buffer = new int[Math.max(n, capacity)];
+
+        build(order.clone());
+    }
+
+    // Segmenti od groupSize uzastopnih vrhova, bez preokreta
+    private void build(int[] order) {
+        segCount = 0;
+        for (int start = 0; start < n; start += groupSize) {
+            int end = Math.min(n, start + groupSize);
+            int s = segCount++;
+            segFirst[s] = order[start];
+            segLast[s] = order[end - 1];
+            segReversed[s] = false;
+            segRank[s] = s;
+            for (int i = start; i < end; i++) {
+                int v = order[i];
+                nodeSeg[v] = s;
+                nodeRank[v] = i - start;
+                nodePrev[v] = i > start ? order[i - 1] : -1;
+                nodeNext[v] = i < end - 1 ? order[i + 1] : -1;
+            }
+        }
+        for (int s = 0; s < segCount; s++) {
+            segNext[s] = (s + 1) % segCount;
+            segPrev[s] = (s - 1 + segCount) % segCount;
+        }
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int next(int v) {
+        return flipped ? rawPrev(v) : rawNext(v);
+    }
+
+    @Override
+    public int prev(int v) {
+        return flipped ? rawNext(v) : rawPrev(v);
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        if (flipped) {
+            int tmp = a;
+            a = c;
+            c = tmp;
+        }
+        long ka = key(a);
+        long kb = key(b);
+        long kc = key(c);
+        if (ka <= kc) return ka <= kb && kb <= kc;
+        return kb >= ka || kb <= kc;
+    }
+
+    @Override
+    public void reverse(int from, int to) {
+        if (flipped) {
+            int tmp = from;
+            from = to;
+            to = tmp;
+        }
+        int s = nodeSeg[from];
+        if (s == nodeSeg[to] && key(from) <= key(to)) {
+            reverseInside(s, from, to);
+            return;
+        }
+
+        splitBefore(from);
+        splitAfter(to);
+        int first = nodeSeg[from];
+        int last = nodeSeg[to];
+
+        int count = 1;
+        for (int t = first; t != last; t = segNext[t]) count++;
+
+        if (2 * count > segCount) {
+            // Komplement daje isti ciklus u suprotnom smjeru
+            flipped = !flipped;
+            if (count < segCount) {
+                reverseSegments(segNext[last], segPrev[first], segCount - count);
+            }
+        } else {
+            reverseSegments(first, last, count);
+        }
+
+        if (segCount > maxSegments) {
+            build(rawOrder());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // SIROVI SMJER
+    // ═══════════════════════════════════════════════════════════
+
+    private int rawNext(int v) {
+        int s = nodeSeg[v];
+        int w = segReversed[s] ? nodePrev[v] : nodeNext[v];
+        return w >= 0 ? w : rawFirst(segNext[s]);
+    }
+
+    private int rawPrev(int v) {
+        int s = nodeSeg[v];
+        int w = segReversed[s] ? nodeNext[v] : nodePrev[v];
+        return w >= 0 ? w : rawLast(segPrev[s]);
+    }
+
+    private int rawFirst(int s) {
+        return segReversed[s] ? segLast[s] : segFirst[s];
+    }
+
+    private int rawLast(int s) {
+        return segReversed[s] ? segFirst[s] : segLast[s];
+    }
+
+    // Položaj u sirovom smjeru: rang segmenta, zatim rang vrha u smjeru segmenta
+    private long key(int v) {
+        int s = nodeSeg[v];
+        int rank = segReversed[s] ? n - nodeRank[v] : nodeRank[v];
+        return (long) segRank[s] * (2L * n + 1) + rank;
+    }
+
+    private int[] rawOrder() {
+        int[] order = new int[n];
+        int v = segFirst[0];
+        for (int i = 0; i < n; i++) {
+            order[i] = v;
+            v = rawNext(v);
+        }
+        return order;
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // PREOKRETI
+    // ═══════════════════════════════════════════════════════════
+
+    // Put from .. to (sirovo) unutar segmenta s: preokret podliste, rangovi ostaju na mjestu
+    private void reverseInside(int s, int from, int to) {
+        int u = segReversed[s] ? to : from;
+        int w = segReversed[s] ? from : to;
+
+        int len = 0;
+        for (int v = u; ; v = nodeNext[v]) {
+            buffer[len++] = v;
+            if (v == w) break;
+        }
+        int before = nodePrev[u];
+        int after = nodeNext[w];
+        int firstRank = nodeRank[u];
+
+        int prev = before;
+        for (int i = len - 1; i >= 0; i--) {
+            int v = buffer[i];
+            nodeRank[v] = firstRank + (len - 1 - i);
+            nodePrev[v] = prev;
+            if (prev >= 0) nodeNext[prev] = v;
+            prev = v;
+        }
+        nodeNext[prev] = after;
+        if (after >= 0) nodePrev[after] = prev;
+
+        if (before < 0) segFirst[s] = buffer[len - 1];
+        if (after < 0) segLast[s] = buffer[0];
+    }
+
+    /**
+     * Segmenti first .. last (count uzastopnih u sirovom smjeru) dolaze obrnutim
+     * redom, svaki s obrnutom zastavicom; preuzimaju iste rangove u prstenu.
+     */
+    private void reverseSegments(int first, int last, int count) {
+        int before = segPrev[first];
+        int after = segNext[last];
+        int baseRank = segRank[first];
+
+        int[] segs = buffer;
+        int t = first;
+        for (int i = 0; i < count; i++) {
+            segs[i] = t;
+            t = segNext[t];
+        }
+
+        for (int i = 0; i < count; i++) {
+            int s = segs[count - 1 - i];
+            segReversed[s] = !segReversed[s];
+            segRank[s] = (baseRank + i) % segCount;
+            segPrev[s] = i == 0 ? before : segs[count - i];
+            segNext[s] = i == count - 1 ? after : segs[count - 2 - i];
+        }
+        segNext[before] = segs[count - 1];
+        segPrev[after] = segs[0];
+    }
+
+    // Razdvaja segment od v tako da v bude prvi u sirovom smjeru
+    private void splitBefore(int v) {
+        int s = nodeSeg[v];
+        if (rawFirst(s) == v) return;
+        split(s, v, rawPrev(v));
+    }
+
+    // Razdvaja segment od v tako da v bude zadnji u sirovom smjeru
+    private void splitAfter(int v) {
+        int s = nodeSeg[v];
+        if (rawLast(s) == v) return;
+        split(s, rawNext(v), v);
+    }
+
+    /**
+     * Dijeli segment s između susjednih vrhova left i right (right = rawNext(left)).
+     * Dio do left (sirovo) prelazi u novi segment ispred s.
+     */
+    private void split(int s, int right, int left) {
+        int t = segCount++;
+        boolean reversed = segReversed[s];
+        segReversed[t] = reversed;
+
+        // Interno (bez zastavice) je novi dio na početku ili na kraju liste segmenta s
+        if (!reversed) {
+            segFirst[t] = segFirst[s];
+            segLast[t] = left;
+            segFirst[s] = right;
+            nodeNext[left] = -1;
+            nodePrev[right] = -1;
+        } else {
+            segFirst[t] = left;
+            segLast[t] = segLast[s];
+            segLast[s] = right;
+            nodePrev[left] = -1;
+            nodeNext[right] = -1;
+        }
+        for (int v = segFirst[t]; v >= 0; v = nodeNext[v]) {
+            nodeSeg[v] = t;
+        }
+
+        int before = segPrev[s];
+        segPrev[t] = before;
+        segNext[t] = s;
+        segNext[before] = t;
+        segPrev[s] = t;
+
+        // Rangovi u prstenu ponovno uzastopni, od novog segmenta
+        int rank = 0;
+        int u = t;
+        do {
+            segRank[u] = rank++;
+            u = segNext[u];
+        } while (u != t);
+    }
+}
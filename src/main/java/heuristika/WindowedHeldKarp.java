@@ -0,0 +1,104 @@
+package heuristika;
+
+import fer.HeldKarpPath;
+import java.util.stream.IntStream;
+import utils.DistanceMatrix;
+import utils.Graph;
+
+/**
+ * Poboljšanje ture egzaktnim Held-Karpom nad kliznim prozorom.
+ *
+ * Prozor je w uzastopnih vrhova ture; njegovi susjedi izvan prozora ostaju na mjestu,
+ * a vrhovi unutar prozora se preslože optimalno ({@link HeldKarpPath}, O(w^2 * 2^w)).
+ * Nakon prolaza tura je optimalna unutar svakog obrađenog prozora, što 2-opt/LK ne
+ * jamče (npr. premještanje više vrhova odjednom).
+ *
+ * - prozori jedne faze počinju na pozicijama o, o + (w + 1), o + 2(w + 1), ...: kraj
+ *   jednog je početak sljedećeg, a krajevi se ne mijenjaju, pa se rješavaju paralelno
+ * - svaka sljedeća faza pomiče o za w / 2, pa se prozori preklapaju
+ * - prolaz su dvije faze, O(n * w * 2^w), linearno u n
+ *
+ * Udaljenosti ne moraju biti simetrične (DP je usmjeren).
+ */
+public final class WindowedHeldKarp {
+
+    public static final int DEFAULT_WINDOW = 10;
+
+    private static final double EPS = 1e-10;
+    private static final int MAX_PASSES = 10;
+
+    private WindowedHeldKarp() {
+    }
+
+    /**
+     * Held-Karp prozori od DEFAULT_WINDOW vrhova nad min_distances grafa.
+     */
+    public static double improve(int[] tour, Graph g) {
+        return improve(tour, g.minDistances(), DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param tour Ciklička permutacija vrhova (mijenja se na mjestu)
+     * @param d Udaljenosti
+     * @param window Broj vrhova koji se preslažu u jednom prozoru (najviše {@link HeldKarpPath#MAX_INNER})
+     * @return Ukupna promjena cijene (<= 0)
+     */
+    public static double improve(int[] tour, DistanceMatrix d, int window) {
+        int n = tour.length;
+        if (n < 4) return 0.0;
+
+        // Cijela tura stane u prozor: egzaktno rješenje s fiksiranim prvim vrhom
+        if (n - 1 <= window) {
+            return solveWindow(tour, d, 0, n - 1);
+        }
+
+        int w = Math.max(2, window);
+        int windows = n / (w + 1);
+        int shift = Math.max(1, w / 2);
+
+        double total = 0.0;
+        int offset = 0;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            double passDelta = 0.0;
+            for (int phase = 0; phase < 2; phase++) {
+                final int o = offset;
+                passDelta += IntStream.range(0, windows).parallel()
+                        .mapToDouble(k -> solveWindow(tour, d, (o + k * (w + 1)) % n, w))
+                        .sum();
+                offset = (offset + shift) % n;
+            }
+            total += passDelta;
+            if (passDelta > -EPS) break;
+        }
+        return total;
+    }
+
+    /**
+     * Preslaže w vrhova iza pozicije first (ciklički), ako je to jeftinije.
+     * @return Promjena cijene (<= 0)
+     */
+    private static double solveWindow(int[] tour, DistanceMatrix d, int first, int w) {
+        int n = tour.length;
+        int start = tour[first];
+        int end = tour[(first + w + 1) % n];
+
+        int[] inner = new int[w];
+        double oldCost = 0.0;
+        int prev = start;
+        for (int i = 0; i < w; i++) {
+            inner[i] = tour[(first + 1 + i) % n];
+            oldCost += d.get(prev, inner[i]);
+            prev = inner[i];
+        }
+        oldCost += d.get(prev, end);
+
+        int[] order = new int[w];
+        double newCost = HeldKarpPath.solve(d, start, inner, end, order);
+        if (newCost >= oldCost - EPS) return 0.0;
+
+        for (int i = 0; i < w; i++) {
+            tour[(first + 1 + i) % n] = order[i];
+        }
+        return newCost - oldCost;
+    }
+}
@@ -1,6 +1,7 @@
 package metaheuristika;
 
 import java.util.*;
+import utils.DistanceMatrix;
 import utils.Graph;
 import utils.Result;
 
@@ -28,7 +29,8 @@ public class ACO {
                                 double alpha, double beta, double evaporation, 
                                 double Q, int printEvery) {
         int n = g.n;
-        double[][] distances = g.min_distances;
+        DistanceMatrix distances = g.minDistances();
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         // Pheromone matrix
         double[][] pheromone = new double[n][n];
@@ -51,7 +53,7 @@ public class ACO {
             List<Double> costs = new ArrayList<>();
             
             for (int ant = 0; ant < numAnts; ant++) {
-                int[] tour = constructTour(n, distances, pheromone, alpha, beta);
+                int[] tour = constructTour(n, distances, candidates, pheromone, alpha, beta);
                 double cost = calculateCost(tour, distances);
                 
                 tours.add(tour);
@@ -97,7 +99,7 @@ public class ACO {
      * Construct tour using probabilistic state transition rule.
      * Complexity: O(n^2) - for each of n cities, compute probability for all unvisited
      */
-    private static int[] constructTour(int n, double[][] dist, double[][] pheromone,
+    private static int[] constructTour(int n, DistanceMatrix dist, int[][] candidates, double[][] pheromone,
                                        double alpha, double beta) {
         int[] tour = new int[n];
         boolean[] visited = new boolean[n];
@@ -109,7 +111,7 @@ public class ACO {
         
         // Build tour
         for (int step = 1; step < n; step++) {
-            int next = selectNextCity(current, visited, dist, pheromone, alpha, beta);
+            int next = selectNextCity(current, visited, dist, candidates[current], pheromone, alpha, beta);
             tour[step] = next;
             visited[next] = true;
             current = next;
@@ -122,18 +124,44 @@ public class ACO {
      * Select next city using pheromone and heuristic information.
      * Probability: p_ij = (tau_ij^alpha * eta_ij^beta) / sum(...)
      * where tau = pheromone, eta = 1/distance (heuristic desirability)
+     * 
+     * Biraju se prvo samo neposjećeni kandidati (k najbližih); ostali gradovi
+     * razmatraju se tek kad su svi kandidati posjećeni.
      */
-    private static int selectNextCity(int current, boolean[] visited, double[][] dist,
+    private static int selectNextCity(int current, boolean[] visited, DistanceMatrix dist, int[] candidates,
                                       double[][] pheromone, double alpha, double beta) {
         int n = visited.length;
         double[] probabilities = new double[n];
         double sum = 0.0;
         
+        for (int c : candidates) {
+            if (!visited[c] && dist.get(current, c) > 0) {
+                double tau = Math.pow(pheromone[current][c], alpha);
+                double eta = Math.pow(1.0 / dist.get(current, c), beta);
+                probabilities[c] = tau * eta;
+                sum += probabilities[c];
+            }
+        }
+        if (sum > 0) {
+            double r = rand.nextDouble() * sum;
+            double cumulative = 0.0;
+            int last = -1;
+            for (int c : candidates) {
+                if (probabilities[c] == 0) continue;
+                last = c;
+                cumulative += probabilities[c];
+                if (cumulative >= r) {
+                    return c;
+                }
+            }
+            return last;
+        }
+        
         // Calculate probabilities for unvisited cities
         for (int i = 0; i < n; i++) {
-            if (!visited[i] && dist[current][i] > 0) {
+            if (!visited[i] && dist.get(current, i) > 0) {
                 double tau = Math.pow(pheromone[current][i], alpha);
-                double eta = Math.pow(1.0 / dist[current][i], beta);
+                double eta = Math.pow(1.0 / dist.get(current, i), beta);
                 probabilities[i] = tau * eta;
                 sum += probabilities[i];
             }
@@ -168,12 +196,12 @@ public class ACO {
         return 0;
     }
     
-    private static double calculateCost(int[] tour, double[][] dist) {
+    private static double calculateCost(int[] tour, DistanceMatrix dist) {
         double cost = 0;
         for (int i = 0; i < tour.length; i++) {
             int from = tour[i];
             int to = tour[(i + 1) % tour.length];
-            cost += dist[from][to];
+            cost += dist.get(from, to);
         }
         return cost;
     }
@@ -1,5 +1,6 @@
 package metaheuristika;
 
+import heuristika.GreedyEdge;
 import java.util.*;
 import utils.*;
 
@@ -17,12 +18,13 @@ public class GA {
     // Glavna metoda s crossoverRate parametrom
     public static Result solve(Graph g, int popSize, int generations, double mutationRate, double crossoverRate, int printEvery) {
         int n = g.n;
-        double[][] distances = g.min_distances;
+        DistanceMatrix distances = g.minDistances();
         if (n <= 1) return new Result(0, Arrays.asList(0));
 
-        // Initialize population (random permutations)
+        // Initialize population: greedy-edge tura + random permutacije
         List<int[]> population = new ArrayList<>();
-        for (int i = 0; i < popSize; i++) {
+        population.add(GreedyEdge.order(g));
+        for (int i = 1; i < popSize; i++) {
             population.add(randomTour(n));
         }
 
@@ -98,17 +100,17 @@ public class GA {
     }
 
     // Fitness = total tour cost using min_distances (Floyd-Warshall)
-    private static double fitness(int[] tour, double[][] minDist) {
+    private static double fitness(int[] tour, DistanceMatrix minDist) {
         double cost = 0;
         for (int i = 0; i < tour.length - 1; i++) {
-            cost += minDist[tour[i]][tour[i + 1]];
+            cost += minDist.get(tour[i], tour[i + 1]);
         }
-        cost += minDist[tour[tour.length - 1]][tour[0]]; // Return to start
+        cost += minDist.get(tour[tour.length - 1], tour[0]); // Return to start
         return cost;
     }
 
     // Tournament selection (pick best of 3 random individuals)
-    private static int[] tournamentSelect(List<int[]> pop, double[][] dist) {
+    private static int[] tournamentSelect(List<int[]> pop, DistanceMatrix dist) {
         int[] best = pop.get(rand.nextInt(pop.size()));
         double bestFit = fitness(best, dist);
         
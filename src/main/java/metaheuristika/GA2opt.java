@@ -1,26 +1,24 @@
 package metaheuristika;
 
+import heuristika.LinKernighan;
+import heuristika.LocalSearch;
+import heuristika.WindowedHeldKarp;
 import java.util.*;
 import utils.*;
 
 /**
- * GA Standard + 2-opt Local Search
+ * Memetički GA: genetski algoritam s lokalnom pretragom nad potomcima.
  * 
- * Kombinira genetski algoritam s 2-opt local search za intenzifikaciju.
- * 2-opt je moćan jer:
- * 1. O(n²) po iteraciji - brzo za male n
- * 2. Garantirano pronalazi lokalni optimum
- * 3. Za random instance često pronalazi globalni optimum
+ * - početna populacija: slučajne permutacije popravljene 2-optom po listama
+ *   kandidata ({@link LocalSearch#twoOpt})
+ * - selekcija turnirom, order crossover, elitizam 10%, mutacija zamjenom
+ * - 20% potomaka poboljšava se Lin-Kernighanom ({@link LinKernighan}, 5 najbližih
+ *   kandidata), koji je jači od 2-opta kad tura nije slučajna
+ * - najbolje rješenje na kraju: LK, zatim egzaktno preslagivanje kliznih prozora
+ *   ({@link WindowedHeldKarp})
  * 
- * ZAŠTO JE 2-OPT TAKO DOBAR NA RANDOM INSTANCAMA?
- * - Random instance imaju "glatku" fitness površinu bez dubokih lokalnih optimuma
- * - Težine su uniformno distribuirane [0,1] - nema "zamki"
- * - Za N < 50, 2-opt prostor pretrage je mali (O(n²) poteza)
- * 
- * KADA 2-OPT NIJE DOVOLJAN?
- * - Strukturirane instance (TSPLIB benchmarki)
- * - Cluster instance (gradovi u grupama)
- * - Veliki N (> 100) - previše lokalnih optimuma
+ * Permutacije se ocjenjuju po min_distances, pa je rezultat zatvorena šetnja
+ * s najkraćim putevima između uzastopnih vrhova.
  */
 public class GA2opt {
     
@@ -33,15 +31,16 @@ public class GA2opt {
     public static Result solve(Graph g, int popSize, int generations, double mutationRate, 
                                 double crossoverRate, int printEvery) {
         int n = g.n;
-        double[][] distances = g.min_distances;
+        DistanceMatrix distances = g.minDistances();
         if (n <= 1) return new Result(0, Arrays.asList(0));
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
 
         // Initialize population (random permutations)
         List<int[]> population = new ArrayList<>();
         for (int i = 0; i < popSize; i++) {
             int[] tour = randomTour(n);
-            // Primijeni 2-opt na početnu populaciju
-            tour = twoOpt(tour, distances);
+            // Primijeni 2-opt (na mjestu, po listama kandidata) na početnu populaciju
+            LocalSearch.twoOpt(tour, distances, candidates);
             population.add(tour);
         }
 
@@ -90,9 +89,9 @@ public class GA2opt {
                     mutate(child);
                 }
                 
-                // 2-opt local search na 20% offspring-a
+                // LK local search na 20% offspring-a
                 if (rand.nextDouble() < 0.2) {
-                    child = twoOpt(child, distances);
+                    child = linKernighan(child, g);
                 }
                 
                 newPop.add(child);
@@ -101,45 +100,18 @@ public class GA2opt {
             population = newPop;
         }
         
-        // Finalni 2-opt na best solution
-        bestTour = twoOpt(bestTour, distances);
+        // Finalni LK na best solution, zatim egzaktno preslagivanje po prozorima
+        bestTour = linKernighan(bestTour, g);
+        WindowedHeldKarp.improve(bestTour, g);
         bestCost = fitness(bestTour, distances);
 
         return new Result(bestCost, tourToList(bestTour));
     }
     
-    // 2-opt local search
-    private static int[] twoOpt(int[] tour, double[][] d) {
-        int n = tour.length;
+    // LK nad 5 najbližih kandidata; bolji od 2-opta kad tura nije slučajna
+    private static int[] linKernighan(int[] tour, Graph g) {
         int[] best = tour.clone();
-        boolean improved = true;
-        int maxIter = 100;
-        int iter = 0;
-        
-        while (improved && iter++ < maxIter) {
-            improved = false;
-            for (int i = 0; i < n - 1; i++) {
-                for (int j = i + 2; j < n; j++) {
-                    // Calculate delta
-                    int a = best[i];
-                    int b = best[i + 1];
-                    int c = best[j];
-                    int dn = best[(j + 1) % n];
-                    
-                    double delta = (d[a][c] + d[b][dn]) - (d[a][b] + d[c][dn]);
-                    
-                    if (delta < -1e-10) {
-                        // Reverse segment [i+1, j]
-                        for (int l = i + 1, r = j; l < r; l++, r--) {
-                            int tmp = best[l];
-                            best[l] = best[r];
-                            best[r] = tmp;
-                        }
-                        improved = true;
-                    }
-                }
-            }
-        }
+        LinKernighan.improve(best, g);
         return best;
     }
 
@@ -155,16 +127,16 @@ public class GA2opt {
         return tour;
     }
 
-    private static double fitness(int[] tour, double[][] d) {
+    private static double fitness(int[] tour, DistanceMatrix d) {
         double cost = 0;
         for (int i = 0; i < tour.length - 1; i++) {
-            cost += d[tour[i]][tour[i + 1]];
+            cost += d.get(tour[i], tour[i + 1]);
         }
-        cost += d[tour[tour.length - 1]][tour[0]];
+        cost += d.get(tour[tour.length - 1], tour[0]);
         return cost;
     }
 
-    private static int[] tournamentSelect(List<int[]> pop, double[][] d) {
+    private static int[] tournamentSelect(List<int[]> pop, DistanceMatrix d) {
         int[] best = pop.get(rand.nextInt(pop.size()));
         double bestFit = fitness(best, d);
         for (int i = 0; i < 2; i++) {
@@ -302,7 +302,7 @@ public class GAComparisonMain {
             return null; // Nema optimalne cijene
         }
         
-        return new TestInstance(new Graph(distances), optimalCost, file.getName());
+        return new TestInstance(GraphCache.shared().graph(distances), optimalCost, file.getName());
     }
     
     static void exportResultsByN(Map<Integer, GridResult> bestGAbyN, Map<Integer, GridResult> bestGAWalkByN) {
@@ -1,5 +1,10 @@
 package metaheuristika;
 
+import heuristika.GreedyEdge;
+import heuristika.HilbertCurve;
+import heuristika.LinKernighan;
+import heuristika.LocalSearch;
+import heuristika.SpanningTreeWalk;
 import java.util.*;
 import utils.*;
 
@@ -8,10 +13,12 @@ import utils.*;
  * 
  * KLJUČNA RAZLIKA od GA Standard:
  * - Koristi min_distances (Floyd-Warshall) - ISPRAVNO za MCW!
- * - Dodaje local search (2-opt) za intenzifikaciju
+ * - Dodaje local search (Lin-Kernighan, na kraju i 2-opt + Or-opt) za intenzifikaciju
  * - Elitizam za očuvanje najboljih rješenja
  * 
- * Time Complexity: O(generations * popSize * n²) zbog local search
+ * Time Complexity: O(generations * popSize * n) za evaluaciju, crossover i mutaciju;
+ * Lin-Kernighan po listama kandidata na 10% potomaka približno je linearan u n po
+ * prolazu (uz jednokratni Floyd-Warshall O(n³) za min_distances)
  */
 public class GAWalk {
     
@@ -19,9 +26,10 @@ public class GAWalk {
     
     public static Result solve(Graph g, int popSize, int generations, double mutationRate, int printEvery) {
         int n = g.n;
-        double[][] minDist = g.min_distances; // KORISTIMO MIN_DISTANCES!
+        DistanceMatrix minDist = g.minDistances(); // KORISTIMO MIN_DISTANCES!
         
         if (n <= 1) return new Result(0, Arrays.asList(0));
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         // Inicijalizacija populacije (permutacije)
         List<int[]> population = initializePopulation(g, popSize);
@@ -80,7 +88,7 @@ public class GAWalk {
                 
                 // Local search na dijelu populacije (intenzifikacija)
                 if (rand.nextDouble() < 0.1) { // 10% šanse za local search
-                    offspring = twoOptImprove(offspring, minDist);
+                    offspring = linKernighanImprove(offspring, g);
                 }
                 
                 newPopulation.add(offspring);
@@ -89,9 +97,11 @@ public class GAWalk {
             population = newPopulation;
         }
         
-        // Finalni local search na best solution
+        // Finalni local search na best solution (LK, zatim 2-opt + Or-opt)
         if (bestPerm != null) {
-            bestPerm = twoOptImprove(bestPerm, minDist);
+            bestPerm = bestPerm.clone();
+            LinKernighan.improve(bestPerm, g);
+            LocalSearch.twoOptOrOpt(bestPerm, minDist, candidates);
             bestCost = evaluatePerm(bestPerm, minDist);
         }
         
@@ -105,8 +115,23 @@ public class GAWalk {
         // Greedy nearest neighbor
         population.add(greedyPerm(g));
         
+        // MST konstrukcija (najviše 2 * optimum)
+        if (popSize > 1) {
+            population.add(SpanningTreeWalk.order(g));
+        }
+        
+        // Greedy-edge
+        if (popSize > 2) {
+            population.add(GreedyEdge.order(g));
+        }
+        
+        // Hilbertova krivulja (samo za graf zadan koordinatama)
+        if (popSize > 3 && g instanceof EuclideanGraph) {
+            population.add(HilbertCurve.order((EuclideanGraph) g));
+        }
+        
         // Random permutacije
-        for (int i = 1; i < popSize; i++) {
+        for (int i = population.size(); i < popSize; i++) {
             int[] perm = new int[n];
             for (int j = 0; j < n; j++) perm[j] = j;
             shuffleArray(perm);
@@ -118,7 +143,7 @@ public class GAWalk {
     
     private static int[] greedyPerm(Graph g) {
         int n = g.n;
-        double[][] minDist = g.min_distances;
+        DistanceMatrix minDist = g.minDistances();
         int[] perm = new int[n];
         boolean[] visited = new boolean[n];
         
@@ -129,8 +154,8 @@ public class GAWalk {
             int best = -1;
             double bestDist = Double.MAX_VALUE;
             for (int j = 0; j < n; j++) {
-                if (!visited[j] && minDist[perm[i-1]][j] < bestDist) {
-                    bestDist = minDist[perm[i-1]][j];
+                if (!visited[j] && minDist.get(perm[i-1], j) < bestDist) {
+                    bestDist = minDist.get(perm[i-1], j);
                     best = j;
                 }
             }
@@ -141,13 +166,13 @@ public class GAWalk {
         return perm;
     }
     
-    private static double evaluatePerm(int[] perm, double[][] minDist) {
+    private static double evaluatePerm(int[] perm, DistanceMatrix minDist) {
         double cost = 0;
         int n = perm.length;
         for (int i = 0; i < n - 1; i++) {
-            cost += minDist[perm[i]][perm[i + 1]];
+            cost += minDist.get(perm[i], perm[i + 1]);
         }
-        cost += minDist[perm[n - 1]][perm[0]];
+        cost += minDist.get(perm[n - 1], perm[0]);
         return cost;
     }
     
@@ -206,58 +231,14 @@ public class GAWalk {
     }
     
     /**
-     * 2-opt local search za poboljšanje permutacije
+     * Lin-Kernighan za poboljšanje permutacije (5 najbližih kandidata)
      */
-    private static int[] twoOptImprove(int[] perm, double[][] minDist) {
-        int n = perm.length;
+    private static int[] linKernighanImprove(int[] perm, Graph g) {
         int[] best = perm.clone();
-        double bestCost = evaluatePerm(best, minDist);
-        
-        boolean improved = true;
-        int maxIter = 100; // Ograniči iteracije
-        int iter = 0;
-        
-        while (improved && iter++ < maxIter) {
-            improved = false;
-            for (int i = 0; i < n - 1; i++) {
-                for (int j = i + 2; j < n; j++) {
-                    // Probaj 2-opt swap
-                    double delta = calculate2OptDelta(best, i, j, minDist);
-                    if (delta < -1e-10) {
-                        reverse(best, i + 1, j);
-                        bestCost += delta;
-                        improved = true;
-                    }
-                }
-            }
-        }
-        
+        LinKernighan.improve(best, g);
         return best;
     }
     
-    private static double calculate2OptDelta(int[] perm, int i, int j, double[][] d) {
-        int n = perm.length;
-        int a = perm[i];
-        int b = perm[i + 1];
-        int c = perm[j];
-        int d_node = perm[(j + 1) % n];
-        
-        double oldDist = d[a][b] + d[c][d_node];
-        double newDist = d[a][c] + d[b][d_node];
-        
-        return newDist - oldDist;
-    }
-    
-    private static void reverse(int[] arr, int start, int end) {
-        while (start < end) {
-            int tmp = arr[start];
-            arr[start] = arr[end];
-            arr[end] = tmp;
-            start++;
-            end--;
-        }
-    }
-    
     private static void shuffleArray(int[] arr) {
         for (int i = arr.length - 1; i > 0; i--) {
             int j = rand.nextInt(i + 1);
@@ -36,8 +36,8 @@ public class GAWalkTest {
             double bestMS = Double.MAX_VALUE;
             for (int i = 0; i < 100; i++) {
                 int[] perm = randomPerm(g.n);
-                perm = twoOpt(perm, g.min_distances);
-                double cost = evaluatePerm(perm, g.min_distances);
+                perm = twoOpt(perm, g.minDistances());
+                double cost = evaluatePerm(perm, g.minDistances());
                 if (cost < bestMS) bestMS = cost;
             }
             double gapMS = (bestMS - g.optimalCost) / g.optimalCost * 100;
@@ -78,17 +78,18 @@ public class GAWalkTest {
         return perm;
     }
     
-    static double evaluatePerm(int[] perm, double[][] minDist) {
+    static double evaluatePerm(int[] perm, DistanceMatrix minDist) {
         double cost = 0;
         int n = perm.length;
         for (int i = 0; i < n - 1; i++) {
-            cost += minDist[perm[i]][perm[i + 1]];
+            cost += minDist.get(perm[i], perm[i + 1]);
         }
-        cost += minDist[perm[n - 1]][perm[0]];
+        cost += minDist.get(perm[n - 1], perm[0]);
         return cost;
     }
     
-    static int[] twoOpt(int[] perm, double[][] d) {
+    // Puni O(n^2) 2-opt (svi parovi bridova) - referenca, bez ograničenja na kandidate
+    static int[] twoOpt(int[] perm, DistanceMatrix d) {
         int n = perm.length;
         boolean improved = true;
         while (improved) {
@@ -97,7 +98,7 @@ public class GAWalkTest {
                 for (int j = i + 2; j < n; j++) {
                     int a = perm[i], b = perm[i+1];
                     int c = perm[j], dn = perm[(j+1) % n];
-                    double delta = (d[a][c] + d[b][dn]) - (d[a][b] + d[c][dn]);
+                    double delta = (d.get(a, c) + d.get(b, dn)) - (d.get(a, b) + d.get(c, dn));
                     if (delta < -1e-10) {
                         for (int l = i+1, r = j; l < r; l++, r--) {
                             int tmp = perm[l]; perm[l] = perm[r]; perm[r] = tmp;
@@ -1,5 +1,6 @@
 package metaheuristika;
 
+import heuristika.GreedyEdge;
 import java.util.*;
 import utils.*;
 
@@ -47,7 +48,7 @@ public class MemeticGASA {
                                double mutationRate, double saApplyRate, 
                                int printEvery) {
         int n = g.n;
-        double[][] distances = g.min_distances;  // MORA biti min_distances za MCW!
+        DistanceMatrix distances = g.minDistances();  // MORA biti min_distances za MCW!
         
         if (n <= 1) return new Result(0, Arrays.asList(0));
         
@@ -127,7 +128,7 @@ public class MemeticGASA {
     }
     
     /**
-     * Initialize population: 1 greedy + rest random walks
+     * Initialize population: 1 greedy + 1 greedy-edge + rest random walks
      */
     private static List<List<Integer>> initializePopulation(Graph g, int popSize) {
         List<List<Integer>> population = new ArrayList<>();
@@ -136,8 +137,15 @@ public class MemeticGASA {
         // First: greedy walk
         population.add(greedyWalk(g));
         
+        // Greedy-edge tura (bez skupih povrataka na kraju kao kod nearest neighbora)
+        if (popSize > 1) {
+            List<Integer> greedyEdge = new ArrayList<>(n);
+            for (int v : GreedyEdge.order(g)) greedyEdge.add(v);
+            population.add(greedyEdge);
+        }
+        
         // Rest: random walks
-        for (int i = 1; i < popSize; i++) {
+        for (int i = population.size(); i < popSize; i++) {
             population.add(randomWalk(n));
         }
         
@@ -164,7 +172,7 @@ public class MemeticGASA {
     
     private static List<Integer> greedyWalk(Graph g) {
         int n = g.n;
-        double[][] distances = g.min_distances;
+        DistanceMatrix distances = g.minDistances();
         
         List<Integer> walk = new ArrayList<>();
         boolean[] visited = new boolean[n];
@@ -178,8 +186,8 @@ public class MemeticGASA {
             double minDist = Double.MAX_VALUE;
             
             for (int j = 0; j < n; j++) {
-                if (!visited[j] && distances[current][j] < minDist) {
-                    minDist = distances[current][j];
+                if (!visited[j] && distances.get(current, j) < minDist) {
+                    minDist = distances.get(current, j);
                     next = j;
                 }
             }
@@ -200,18 +208,19 @@ public class MemeticGASA {
     private static List<Integer> localSearchSA(List<Integer> walk, Graph g,
                                                 double T0, double alpha, int iterations) {
         List<Integer> current = new ArrayList<>(walk);
-        double currentCost = evaluateWalk(current, g.min_distances);
+        double currentCost = evaluateWalk(current, g.minDistances());
         
         List<Integer> best = new ArrayList<>(current);
         double bestCost = currentCost;
         
         double T = T0;
         int n = g.n;
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         for (int iter = 0; iter < iterations; iter++) {
             // Generate neighbor
-            List<Integer> neighbor = generateNeighbor(current, n);
-            double neighborCost = evaluateWalk(neighbor, g.min_distances);
+            List<Integer> neighbor = generateNeighbor(current, n, candidates);
+            double neighborCost = evaluateWalk(neighbor, g.minDistances());
             
             // Accept or reject
             double delta = neighborCost - currentCost;
@@ -237,7 +246,7 @@ public class MemeticGASA {
     /**
      * Generate neighbor solution using various operators
      */
-    private static List<Integer> generateNeighbor(List<Integer> walk, int n) {
+    private static List<Integer> generateNeighbor(List<Integer> walk, int n, int[][] candidates) {
         List<Integer> neighbor = new ArrayList<>(walk);
         
         if (neighbor.isEmpty()) return neighbor;
@@ -253,9 +262,10 @@ public class MemeticGASA {
                 }
                 break;
                 
-            case 1: // Insert random node
+            case 1: // Insert node close to its predecessor (candidate list)
                 int pos = rand.nextInt(neighbor.size() + 1);
-                neighbor.add(pos, rand.nextInt(n));
+                int[] near = candidates[neighbor.get(pos == 0 ? neighbor.size() - 1 : pos - 1)];
+                neighbor.add(pos, near.length > 0 ? near[rand.nextInt(near.length)] : rand.nextInt(n));
                 break;
                 
             case 2: // Delete duplicate (safe)
@@ -395,10 +405,10 @@ public class MemeticGASA {
     /**
      * Evaluate walk fitness
      */
-    private static double evaluateWalk(List<Integer> walk, double[][] distances) {
+    private static double evaluateWalk(List<Integer> walk, DistanceMatrix distances) {
         if (walk.size() < 2) return Double.MAX_VALUE;
         
-        int n = distances.length;
+        int n = distances.size();
         Set<Integer> visited = new HashSet<>(walk);
         
         // Must cover all nodes
@@ -408,9 +418,9 @@ public class MemeticGASA {
         
         double cost = 0.0;
         for (int i = 0; i < walk.size() - 1; i++) {
-            cost += distances[walk.get(i)][walk.get(i + 1)];
+            cost += distances.get(walk.get(i), walk.get(i + 1));
         }
-        cost += distances[walk.get(walk.size() - 1)][walk.get(0)];
+        cost += distances.get(walk.get(walk.size() - 1), walk.get(0));
         
         return cost;
     }
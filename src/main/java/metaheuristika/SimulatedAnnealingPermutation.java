@@ -1,5 +1,6 @@
 package metaheuristika;
 
+import heuristika.Tour;
 import java.util.*;
 import utils.*;
 
@@ -9,7 +10,8 @@ import utils.*;
  * Reprezentacija: Permutacija čvorova [0,1,2,...,n-1]
  * Fitness: Duljina minimum closed walk-a preko permutacije
  * 
- * Susjedstvo: 2-opt swap (reverse podziza)
+ * Susjedstvo: 2-opt swap (reverse podniza) nad {@link Tour}: delta u O(1),
+ * prihvaćeni potez O(sqrt(n)) za velike n (dvorazinska lista)
  * 
  * Annealing Schedule:
  * - Početna temperatura: T0 (visoka - prihvaća gotovo sve)
@@ -20,7 +22,7 @@ import utils.*;
  * - Ako je novo bolje: prihvati
  * - Ako je lošije: prihvati s P = exp(-delta/T)
  * 
- * Time Complexity: O(iterations * n) za fitness evaluacije
+ * Time Complexity: O(iterations * sqrt(n)) (najbolje rješenje se kopira samo kad se popravi)
  */
 public class SimulatedAnnealingPermutation {
     
@@ -37,16 +39,18 @@ public class SimulatedAnnealingPermutation {
     public static Result solve(Graph g, double T0, double alpha, int iterationsPerTemp, 
                                 double minTemp, int printEvery) {
         int n = g.n;
-        double[][] distances = g.min_distances;
+        DistanceMatrix distances = g.minDistances();
         
         if (n <= 1) return new Result(0, Arrays.asList(0));
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         // Inicijalno rješenje: random permutacija
-        int[] current = randomPermutation(n);
-        double currentCost = evaluatePermutation(current, distances);
+        int[] initial = randomPermutation(n);
+        Tour current = Tour.of(initial);
+        double currentCost = evaluatePermutation(initial, distances);
         
         // Najbolje rješenje
-        int[] best = current.clone();
+        int[] best = initial;
         double bestCost = currentCost;
         
         double T = T0;
@@ -56,21 +60,34 @@ public class SimulatedAnnealingPermutation {
             for (int i = 0; i < iterationsPerTemp; i++) {
                 iteration++;
                 
-                // Generiraj susjeda: 2-opt swap
-                int[] neighbor = generate2OptNeighbor(current);
-                double neighborCost = evaluatePermutation(neighbor, distances);
+                // Generiraj susjeda: 2-opt swap koji a i c čini susjednima
+                int a = rand.nextInt(n);
+                int c = rand.nextInt(n);
+                int[] near = candidates[a];
+                if (near.length > 0) {
+                    c = near[rand.nextInt(near.length)];
+                }
                 
-                // Delta energije
-                double delta = neighborCost - currentCost;
+                // Delta energije u O(1): (a, na) + (c, nc) -> (a, c) + (na, nc)
+                int na = current.next(a);
+                int nc = current.next(c);
+                double delta = 0;
+                boolean valid = c != a && c != na && a != nc;
+                if (valid) {
+                    delta = distances.get(a, c) + distances.get(na, nc)
+                            - distances.get(a, na) - distances.get(c, nc);
+                }
                 
                 // Metropolis kriterij
                 if (delta < 0 || rand.nextDouble() < Math.exp(-delta / T)) {
-                    current = neighbor;
-                    currentCost = neighborCost;
+                    if (valid) {
+                        current.reverse(na, c);
+                        currentCost += delta;
+                    }
                     
                     // Update best
                     if (currentCost < bestCost) {
-                        best = current.clone();
+                        best = current.toArray(0);
                         bestCost = currentCost;
                     }
                 }
@@ -85,6 +102,9 @@ public class SimulatedAnnealingPermutation {
             T *= alpha;
         }
         
+        // Zbrajanje delti akumulira grešku zaokruživanja - konačna cijena ponovno
+        bestCost = evaluatePermutation(best, distances);
+        
         // Konverzija u walk
         List<Integer> tour = new ArrayList<>();
         for (int node : best) {
@@ -98,53 +118,19 @@ public class SimulatedAnnealingPermutation {
      * Evaluira permutaciju kao minimum closed walk.
      * Walk se gradi idući po permutaciji i koristeći min_distances.
      */
-    private static double evaluatePermutation(int[] perm, double[][] distances) {
+    private static double evaluatePermutation(int[] perm, DistanceMatrix distances) {
         int n = perm.length;
         double cost = 0.0;
         
         for (int i = 0; i < n; i++) {
             int from = perm[i];
             int to = perm[(i + 1) % n];
-            cost += distances[from][to];
+            cost += distances.get(from, to);
         }
         
         return cost;
     }
     
-    /**
-     * 2-opt swap: Reverse segment [i+1, j]
-     */
-    private static int[] generate2OptNeighbor(int[] perm) {
-        int n = perm.length;
-        int[] neighbor = perm.clone();
-        
-        int i = rand.nextInt(n);
-        int j = rand.nextInt(n);
-        
-        if (i > j) {
-            int temp = i;
-            i = j;
-            j = temp;
-        }
-        
-        // Reverse segment [i+1, j]
-        if (i < j) {
-            reverse(neighbor, i + 1, j);
-        }
-        
-        return neighbor;
-    }
-    
-    private static void reverse(int[] arr, int start, int end) {
-        while (start < end) {
-            int temp = arr[start];
-            arr[start] = arr[end];
-            arr[end] = temp;
-            start++;
-            end--;
-        }
-    }
-    
     private static int[] randomPermutation(int n) {
         int[] perm = new int[n];
         for (int i = 0; i < n; i++) {
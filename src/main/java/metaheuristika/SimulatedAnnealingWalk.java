@@ -26,9 +26,10 @@ public class SimulatedAnnealingWalk {
     public static Result solve(Graph g, double T0, double alpha, int iterationsPerTemp, 
                                 double minTemp, int printEvery) {
         int n = g.n;
-        double[][] distances = g.distance_matrix;
+        DistanceMatrix distances = g.distances();
         
         if (n <= 1) return new Result(0, Arrays.asList(0));
+        int[][] candidates = g.candidateLists(Graph.DEFAULT_CANDIDATES);
         
         // Inicijalno rješenje: greedy walk
         List<Integer> current = greedyWalk(g);
@@ -46,7 +47,7 @@ public class SimulatedAnnealingWalk {
                 iteration++;
                 
                 // Generiraj susjeda
-                List<Integer> neighbor = generateNeighbor(current, n);
+                List<Integer> neighbor = generateNeighbor(current, n, candidates);
                 double neighborCost = evaluateWalk(neighbor, distances);
                 
                 // Metropolis kriterij
@@ -74,10 +75,10 @@ public class SimulatedAnnealingWalk {
         return new Result(bestCost, best);
     }
     
-    private static double evaluateWalk(List<Integer> walk, double[][] distances) {
+    private static double evaluateWalk(List<Integer> walk, DistanceMatrix distances) {
         if (walk.size() < 2) return Double.MAX_VALUE;
         
-        int n = distances.length;
+        int n = distances.size();
         Set<Integer> visited = new HashSet<>(walk);
         
         // Walk MORA pokrivati sve čvorove
@@ -87,21 +88,21 @@ public class SimulatedAnnealingWalk {
         
         double cost = 0.0;
         for (int i = 0; i < walk.size() - 1; i++) {
-            cost += distances[walk.get(i)][walk.get(i + 1)];
+            cost += distances.get(walk.get(i), walk.get(i + 1));
         }
-        cost += distances[walk.get(walk.size() - 1)][walk.get(0)];
+        cost += distances.get(walk.get(walk.size() - 1), walk.get(0));
         
         return cost;
     }
     
-    private static List<Integer> generateNeighbor(List<Integer> walk, int n) {
+    private static List<Integer> generateNeighbor(List<Integer> walk, int n, int[][] candidates) {
         List<Integer> neighbor = new ArrayList<>(walk);
         
         int operation = rand.nextInt(4);
         
         switch (operation) {
             case 0: // Insert
-                insertRandomNode(neighbor, n);
+                insertRandomNode(neighbor, n, candidates);
                 break;
             case 1: // Delete (samo duplikate)
                 if (neighbor.size() > n) {
@@ -123,9 +124,11 @@ public class SimulatedAnnealingWalk {
         return neighbor;
     }
     
-    private static void insertRandomNode(List<Integer> walk, int n) {
-        int node = rand.nextInt(n);
+    // Umeće kandidata prethodnog čvora (bliski čvor), a slučajni čvor samo ako kandidata nema
+    private static void insertRandomNode(List<Integer> walk, int n, int[][] candidates) {
         int pos = rand.nextInt(walk.size() + 1);
+        int[] near = candidates[walk.get(pos == 0 ? walk.size() - 1 : pos - 1)];
+        int node = near.length > 0 ? near[rand.nextInt(near.length)] : rand.nextInt(n);
         walk.add(pos, node);
     }
     
@@ -167,7 +170,7 @@ public class SimulatedAnnealingWalk {
     
     private static List<Integer> greedyWalk(Graph g) {
         int n = g.n;
-        double[][] distances = g.distance_matrix;
+        DistanceMatrix distances = g.distances();
         
         List<Integer> walk = new ArrayList<>();
         boolean[] visited = new boolean[n];
@@ -181,8 +184,8 @@ public class SimulatedAnnealingWalk {
             double minDist = Double.MAX_VALUE;
             
             for (int j = 0; j < n; j++) {
-                if (!visited[j] && distances[current][j] < minDist) {
-                    minDist = distances[current][j];
+                if (!visited[j] && distances.get(current, j) < minDist) {
+                    minDist = distances.get(current, j);
                     next = j;
                 }
             }
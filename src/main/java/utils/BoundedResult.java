@@ -0,0 +1,29 @@
+package utils;
+
+import java.util.List;
+
+/**
+ * Rezultat heuristike zajedno s donjom ogradom optimalne cijene iste instance.
+ * Iz cost / lowerBound odmah slijedi gornja ograda relativnog odstupanja od optimuma.
+ */
+public class BoundedResult extends Result {
+
+    public final double lowerBound;
+
+    public BoundedResult(double cost, List<Integer> tour, double lowerBound) {
+        super(cost, tour);
+        this.lowerBound = lowerBound;
+    }
+
+    /**
+     * Najveće moguće odstupanje od optimuma, (cost - lowerBound) / lowerBound.
+     */
+    public double gapBound() {
+        return lowerBound > 0 ? (cost - lowerBound) / lowerBound : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + ", Lower bound: " + lowerBound;
+    }
+}
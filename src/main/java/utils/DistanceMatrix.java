@@ -0,0 +1,79 @@
+package utils;
+
+/**
+ * Matrica udaljenosti n x n neovisna o načinu spremanja.
+ *
+ * Implementacije:
+ * - {@link FlatDistanceMatrix}: double, jedno polje redak-po-redak (zadano, najbrže)
+ * - {@link SymmetricDistanceMatrix}: double, samo gornji trokut (pola memorije)
+ * - {@link EuclideanDistanceMatrix}: samo koordinate točaka, udaljenost se računa pri pozivu (O(n))
+ */
+public interface DistanceMatrix {
+
+    enum Storage {
+        FLAT,
+        SYMMETRIC,
+        COORDINATES  // bez matrice, samo EuclideanGraph
+    }
+
+    int size();
+
+    double get(int i, int j);
+
+    /**
+     * Pretvara u double[][] (npr. za TSPSolver). Kopira sve podatke.
+     */
+    default double[][] toArray() {
+        int n = size();
+        double[][] m = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m[i][j] = get(i, j);
+            }
+        }
+        return m;
+    }
+
+    static DistanceMatrix of(double[][] m, Storage storage) {
+        switch (storage) {
+            case SYMMETRIC:
+                return SymmetricDistanceMatrix.of(m);
+            case COORDINATES:
+                throw new IllegalArgumentException("COORDINATES storage cannot be built from a matrix");
+            default:
+                return FlatDistanceMatrix.of(m);
+        }
+    }
+
+    /**
+     * Pretvara row-major double polje (npr. rezultat Floyd-Warshalla) u traženi format.
+     * Za FLAT se polje ne kopira.
+     */
+    static DistanceMatrix fromFlat(double[] data, int n, Storage storage) {
+        switch (storage) {
+            case SYMMETRIC:
+                return SymmetricDistanceMatrix.fromFlat(data, n);
+            case COORDINATES:
+                throw new IllegalArgumentException("COORDINATES storage cannot be built from a matrix");
+            default:
+                return new FlatDistanceMatrix(data, n);
+        }
+    }
+
+    /**
+     * SYMMETRIC za simetričnu matricu (npr. iz GraphGenerator ili datoteka u data/), inače FLAT.
+     */
+    static Storage storageFor(double[][] m) {
+        return isSymmetric(m) ? Storage.SYMMETRIC : Storage.FLAT;
+    }
+
+    static boolean isSymmetric(double[][] m) {
+        int n = m.length;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (Double.compare(m[i][j], m[j][i]) != 0) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package utils;
+
+/**
+ * Euklidske udaljenosti između točaka u ravnini, računaju se pri svakom pozivu.
+ * Memorija je O(n) umjesto O(n^2), pa je pogodna za instance od ~100k vrhova.
+ */
+public final class EuclideanDistanceMatrix implements DistanceMatrix {
+
+    private final double[] xs;
+    private final double[] ys;
+
+    public EuclideanDistanceMatrix(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("xs and ys must have the same length");
+        }
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    @Override
+    public int size() {
+        return xs.length;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        double dx = xs[i] - xs[j];
+        double dy = ys[i] - ys[j];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,80 @@
+package utils;
+
+import java.util.stream.IntStream;
+
+/**
+ * Potpuni euklidski graf zadan koordinatama točaka.
+ *
+ * Euklidske udaljenosti već zadovoljavaju nejednakost trokuta, pa je svaki
+ * najkraći put direktan brid: nema Floyd-Warshalla ni n x n matrica, a
+ * distances() i minDistances() računaju udaljenost iz koordinata pri pozivu.
+ * Heuristike i metaheuristike koje čitaju udaljenosti preko {@link DistanceMatrix}
+ * rade bez izmjena, uz O(n) memorije.
+ *
+ * Liste kandidata i "najbliži neposjećeni" upiti idu preko {@link KdTree}
+ * umjesto skeniranja svih n vrhova.
+ *
+ * Napomena: distance_matrix je null; getHops() za svaki vrh vraća sve ostale
+ * vrhove (O(n^2) memorije) pa egzaktni solveri imaju smisla samo za mali n.
+ */
+public class EuclideanGraph extends Graph {
+
+    private final EuclideanDistanceMatrix points;
+    private final Lazy<KdTree> spatialIndex;
+
+    private EuclideanGraph(double[] xs, double[] ys) {
+        this(new EuclideanDistanceMatrix(xs, ys), xs, ys);
+    }
+
+    private EuclideanGraph(EuclideanDistanceMatrix points, double[] xs, double[] ys) {
+        super(points);
+        this.points = points;
+        this.spatialIndex = new Lazy<>(() -> new KdTree(xs, ys));
+    }
+
+    /**
+     * @param xs x koordinate vrhova
+     * @param ys y koordinate vrhova (iste duljine kao xs)
+     */
+    public static EuclideanGraph of(double[] xs, double[] ys) {
+        return new EuclideanGraph(xs, ys);
+    }
+
+    /**
+     * @param points points[i] = {x, y}
+     */
+    public static EuclideanGraph fromPoints(double[][] points) {
+        int n = points.length;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = points[i][0];
+            ys[i] = points[i][1];
+        }
+        return of(xs, ys);
+    }
+
+    public double x(int v) {
+        return points.x(v);
+    }
+
+    public double y(int v) {
+        return points.y(v);
+    }
+
+    /**
+     * k-d stablo nad vrhovima, gradi se pri prvom pozivu i dijeli između pretraga.
+     */
+    public KdTree spatialIndex() {
+        return spatialIndex.get();
+    }
+
+    // knn upiti na k-d stablu: O(n log n) ukupno umjesto O(n^2) skeniranja redaka
+    @Override
+    protected int[][] buildCandidateLists(int k) {
+        KdTree tree = spatialIndex();
+        int[][] lists = new int[n][];
+        IntStream.range(0, n).parallel().forEach(v -> lists[v] = tree.knn(v, k));
+        return lists;
+    }
+}
@@ -0,0 +1,60 @@
+package utils;
+
+/**
+ * Row-major matrica u jednom double polju: element (i, j) je data[i * n + j].
+ * Cijeli redak je kontinuiran u memoriji, bez dereferenciranja polja redaka.
+ */
+public final class FlatDistanceMatrix implements DistanceMatrix {
+
+    private final double[] data;
+    private final int n;
+
+    public FlatDistanceMatrix(double[] data, int n) {
+        if (data.length != length(n)) {
+            throw new IllegalArgumentException("Expected " + length(n) + " entries, got " + data.length);
+        }
+        this.data = data;
+        this.n = n;
+    }
+
+    public static FlatDistanceMatrix of(double[][] m) {
+        int n = m.length;
+        double[] data = new double[length(n)];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(m[i], 0, data, i * n, n);
+        }
+        return new FlatDistanceMatrix(data, n);
+    }
+
+    /**
+     * n^2 računat u long: veće od najvećeg polja javlja grešku umjesto preljeva indeksa.
+     */
+    static int length(int n) {
+        long len = (long) n * n;
+        if (len > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix too large for flat storage: n = " + n);
+        }
+        return (int) len;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[i * n + j];
+    }
+
+    void set(int i, int j, double value) {
+        data[i * n + j] = value;
+    }
+
+    /**
+     * Interno polje (bez kopiranja) za petlje koje prolaze cijelim retkom.
+     */
+    public double[] data() {
+        return data;
+    }
+}
@@ -1,57 +1,495 @@
 package utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
 public class Graph {
 	
+	// Od ovog n nadalje floydWarshall koristi blokovanu paralelnu verziju
+	static final int BLOCKED_FW_THRESHOLD = 192;
+	static final int FW_BLOCK_SIZE = 64;
+
+	// Duljina liste kandidata koju heuristike koriste kad ne traže drugačije
+	public static final int DEFAULT_CANDIDATES = 10;
+
+	// Relativna tolerancija pri prepoznavanju najkraćih puteva iz zbrojeva udaljenosti
+	private static final double PATH_TOLERANCE = 1e-9;
+	
+	// Ulazna matrica; null kod SYMMETRIC (težine su samo u distances()) i kod EuclideanGraph
 	public double[][] distance_matrix ;
-	public double[][] min_distances;
-	public List<int[]> nextHops;
 	public int n ;
 	public double optimalCost;
 	public List<Integer> optimalWalk;
 
+	// Format u kojem se spremaju distances() i minDistances()
+	protected final DistanceMatrix.Storage storage;
+
+	// Izvedene strukture računaju se pri prvom pristupu (konstruktor je O(n^2) manje)
+	private final Lazy<DistanceMatrix> distances;
+	private final Lazy<DistanceMatrix> shortestPaths;
+
+	// getHops() po retku: null = još nije izračunato (ili poništeno s updateEdge)
+	private volatile AtomicReferenceArray<int[]> hops;
+
+	// Sljedbenici: successors[i][j] = sljedeći vrh na najkraćem putu od i do j (-1 ako
+	// puta nema). Izvode se iz težina i minDistances() tek kad ih zatraže nextHop/appendPath
+	// i pamte po upitanom retku, pa nema n x n int matrice; null kod metričkog grafa
+	private volatile AtomicReferenceArray<int[]> successors;
+	private static final int UNKNOWN_SUCCESSOR = -2;
+
+	// Liste k najbližih susjeda po minDistances(), po k
+	private final ConcurrentHashMap<Integer, int[][]> candidateLists = new ConcurrentHashMap<>();
+
 	public Graph(double[][] distance_matrix) {
-		
-		this.n = distance_matrix.length;
-		this.distance_matrix = distance_matrix;
-		this.min_distances = floydWarshall(distance_matrix);
-		this.nextHops = floydWarshallNext(distance_matrix, min_distances);
-		
-			
+		this(distance_matrix, DistanceMatrix.Storage.FLAT);
+	}
+
+	/**
+	 * @param storage FLAT (zadano) ili SYMMETRIC za simetrične ulaze. SYMMETRIC odmah
+	 *        pakira težine u gornji trokut i ne zadržava ulaznu matricu (distance_matrix je null)
+	 * @throws IllegalArgumentException ako je storage SYMMETRIC, a matrica nije simetrična
+	 */
+	public Graph(double[][] distance_matrix, DistanceMatrix.Storage storage) {
+		this(distance_matrix, null, storage);
 	}
 	
 	public Graph(double[][] distances, double optimalCost, List<Integer> optimalWalk) {
+		this(distances);
         this.optimalCost = optimalCost;
 		this.optimalWalk = optimalWalk;
-		this.n = distances.length;
-		this.distance_matrix = distances;
-		this.min_distances = floydWarshall(distances);
-		this.nextHops = floydWarshallNext(distances, min_distances);
     }
 
+	/**
+	 * Graf s već izračunatim najkraćim putevima (npr. metričko zatvorenje rijetkog grafa
+	 * ili unos iz {@link GraphCache}); null = Floyd-Warshall pri prvom pristupu.
+	 */
+	protected Graph(double[][] distance_matrix, DistanceMatrix minDistances, DistanceMatrix.Storage storage) {
+		if (storage == DistanceMatrix.Storage.SYMMETRIC && !DistanceMatrix.isSymmetric(distance_matrix)) {
+			throw new IllegalArgumentException("SYMMETRIC storage requires a symmetric distance matrix");
+		}
+		
+		this.n = distance_matrix.length;
+		this.storage = storage;
+		if (storage == DistanceMatrix.Storage.SYMMETRIC) {
+			// Pakirane težine su jedina kopija - vršna memorija je 2 gornja trokuta, ne n^2
+			this.distance_matrix = null;
+			this.distances = Lazy.of(SymmetricDistanceMatrix.of(distance_matrix));
+		} else {
+			this.distance_matrix = distance_matrix;
+			this.distances = new Lazy<>(() -> DistanceMatrix.of(this.distance_matrix, storage));
+		}
+		this.shortestPaths = minDistances != null ? Lazy.of(minDistances) : new Lazy<>(this::computeShortestPaths);
+		this.hops = new AtomicReferenceArray<>(n);
+		this.successors = new AtomicReferenceArray<>(n);
+	}
 
+	/**
+	 * Potpuni graf čije težine već zadovoljavaju nejednakost trokuta (npr. euklidske
+	 * udaljenosti): minDistances() je isti objekt kao distances(), Floyd-Warshall se
+	 * ne pokreće i ne postoji n x n matrica - distance_matrix je null.
+	 */
+	protected Graph(DistanceMatrix metric) {
+		this.n = metric.size();
+		this.distance_matrix = null;
+		this.storage = DistanceMatrix.Storage.COORDINATES;
+		this.distances = Lazy.of(metric);
+		this.shortestPaths = Lazy.of(metric);
+		this.hops = new AtomicReferenceArray<>(n);
+		this.successors = null;
+	}
 
+	private static int[] otherVertices(int n, int u) {
+		int[] row = new int[n - 1];
+		for (int v = 0, k = 0; v < n; v++) {
+			if (v != u) row[k++] = v;
+		}
+		return row;
+	}
+
+	// Floyd-Warshall radi direktno u formatu spremanja: SYMMETRIC ne alocira punu
+	// double matricu. Sljedbenici se ne računaju (vidi successorRow)
+	private DistanceMatrix computeShortestPaths() {
+		if (storage == DistanceMatrix.Storage.SYMMETRIC) {
+			return SymmetricDistanceMatrix.shortestPaths((SymmetricDistanceMatrix) distances());
+		}
+		return new FlatDistanceMatrix(floydWarshallFlat(distance_matrix, null), n);
+	}
+
+	// Težine bez kopiranja: FLAT čita ulaznu matricu, ostali formati distances()
+	private DistanceMatrix weights() {
+		return distance_matrix != null ? view(distance_matrix) : distances();
+	}
+
+	private static DistanceMatrix view(double[][] w) {
+		return new DistanceMatrix() {
+			@Override
+			public int size() {
+				return w.length;
+			}
+
+			@Override
+			public double get(int i, int j) {
+				return w[i][j];
+			}
+		};
+	}
+
+	/**
+	 * Težine bridova ulaznog grafa, u formatu zadanom pri konstrukciji.
+	 */
+	public DistanceMatrix distances() {
+		return distances.get();
+	}
+
+	/**
+	 * Najkraće udaljenosti između svih parova (Floyd-Warshall), računa se pri prvom pozivu.
+	 */
+	public DistanceMatrix minDistances() {
+		return shortestPaths.get();
+	}
+
+	public DistanceMatrix.Storage storage() {
+		return storage;
+	}
+
+	/**
+	 * DEFAULT_CANDIDATES najbližih vrhova od v po minDistances(), uzlazno po udaljenosti.
+	 */
+	public int[] candidates(int v) {
+		return candidateLists(DEFAULT_CANDIDATES)[v];
+	}
+
+	/**
+	 * Za svaki vrh v, lista do k najbližih vrhova (bez v i nedostižnih vrhova),
+	 * sortirana uzlazno po minDistances(). Računa se jednom po k i pamti.
+	 *
+	 * Heuristike ograničavaju poteze na kandidate pa lokalna pretraga po
+	 * prolazu postaje O(n * k) umjesto O(n^2).
+	 */
+	public int[][] candidateLists(int k) {
+		int size = Math.max(0, Math.min(k, n - 1));
+		return candidateLists.computeIfAbsent(size, this::buildCandidateLists);
+	}
+
+	protected int[][] buildCandidateLists(int k) {
+		DistanceMatrix dist = minDistances();
+		int[][] lists = new int[n][];
+		IntStream.range(0, n).parallel().forEach(v -> lists[v] = nearest(dist, v, k));
+		return lists;
+	}
+
+	// Parcijalna selekcija: sortirani spremnik od k elemenata, novi vrh ulazi
+	// samo ako je bliži od trenutno najdaljeg, pa je redak O(n) u prosjeku.
+	private static int[] nearest(DistanceMatrix dist, int v, int k) {
+		if (k == 0) return new int[0];
+		int n = dist.size();
+		int[] idx = new int[k];
+		double[] best = new double[k];
+		int count = 0;
+		for (int u = 0; u < n; u++) {
+			if (u == v) continue;
+			double d = dist.get(v, u);
+			if (d == Double.POSITIVE_INFINITY) continue;
+			if (count == k && d >= best[k - 1]) continue;
+
+			int pos = count < k ? count++ : k - 1;
+			while (pos > 0 && best[pos - 1] > d) {
+				best[pos] = best[pos - 1];
+				idx[pos] = idx[pos - 1];
+				pos--;
+			}
+			best[pos] = d;
+			idx[pos] = u;
+		}
+		return count == k ? idx : Arrays.copyOf(idx, count);
+	}
+
+	/**
+	 * Susjedi k od i za koje je brid (i, k) prvi korak nekog najkraćeg puta iz i.
+	 * Računa se po retku pri prvom upitu.
+	 */
 	public int[] getHops(int i) {
-		return nextHops.get(i);
+		AtomicReferenceArray<int[]> rows = hops;
+		int[] row = rows.get(i);
+		if (row == null) {
+			row = storage == DistanceMatrix.Storage.COORDINATES
+					? otherVertices(n, i)
+					: usefulHops(weights(), minDistances(), i);
+			rows.set(i, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Mijenja težinu brida u -> v (Double.POSITIVE_INFINITY = brid ne postoji) i
+	 * održava najkraće puteve inkrementalno, bez novog Floyd-Warshalla:
+	 * - smanjenje: O(n^2), svaki par se popravlja preko novog brida
+	 * - povećanje: Dijkstrom se ponovno računaju samo parovi (i, j) za koje je stari
+	 *   brid ležao na nekom najkraćem putu (d(i, u) + w(u, v) + d(v, j) = d(i, j)),
+	 *   O(n^2) po zahvaćenom retku
+	 * getHops(), sljedbenici i liste kandidata se poništavaju i računaju ponovno pri
+	 * idućem upitu.
+	 *
+	 * Kod SYMMETRIC spremanja brid je neusmjeren pa se mijenjaju oba smjera.
+	 * Mijenja distance_matrix; ne smije se zvati dok druge dretve čitaju graf.
+	 */
+	public synchronized void updateEdge(int u, int v, double w) {
+		if (storage == DistanceMatrix.Storage.COORDINATES) {
+			throw new UnsupportedOperationException("Graph has no explicit edge weights");
+		}
+		if (u == v) {
+			throw new IllegalArgumentException("Self-loops are not supported");
+		}
+		if (!(w >= 0)) {
+			throw new IllegalArgumentException("Edge weight must be non-negative: " + w);
+		}
+		boolean undirected = storage == DistanceMatrix.Storage.SYMMETRIC;
+		double old = weights().get(u, v);
+		if (old == w) return;
+
+		// SYMMETRIC nema distance_matrix, a set() na pakiranoj matrici mijenja oba smjera
+		if (distance_matrix != null) distance_matrix[u][v] = w;
+		if (distances.isComputed()) set(distances.get(), u, v, w);
+		hops = new AtomicReferenceArray<>(n);
+		successors = new AtomicReferenceArray<>(n);
+
+		// Najkraći putevi još nisu izračunati - izračunat će se iz nove matrice
+		if (!shortestPaths.isComputed()) return;
+
+		DistanceMatrix d = shortestPaths.get();
+		boolean changed = w < old
+				? decreaseEdge(d, u, v, w, undirected)
+				: increaseEdge(d, u, v, old, undirected);
+		if (changed) candidateLists.clear();
+	}
+
+	// Svaki par (i, j) može se poboljšati samo putem i -> u -> v -> j (i obrnuto kod
+	// neusmjerenog brida). Udaljenosti do u i od v se pri tome ne mijenjaju
+	// (nenegativne težine), a kopiraju se jer ih simetrično spremanje dijeli s upisima.
+	private boolean decreaseEdge(DistanceMatrix d, int u, int v, double w, boolean undirected) {
+		double[] toU = new double[n], fromV = new double[n];
+		double[] toV = new double[n], fromU = new double[n];
+		for (int i = 0; i < n; i++) {
+			toU[i] = d.get(i, u);
+			fromV[i] = d.get(v, i);
+			toV[i] = d.get(i, v);
+			fromU[i] = d.get(u, i);
+		}
+
+		boolean changed = false;
+		for (int i = 0; i < n; i++) {
+			double viaUV = toU[i] + w;
+			double viaVU = undirected ? toV[i] + w : Double.POSITIVE_INFINITY;
+			if (viaUV == Double.POSITIVE_INFINITY && viaVU == Double.POSITIVE_INFINITY) continue;
+
+			for (int j = undirected ? i + 1 : 0; j < n; j++) {
+				double best = Math.min(viaUV + fromV[j], viaVU + fromU[j]);
+				if (best < d.get(i, j)) {
+					set(d, i, j, best);
+					changed = true;
+				}
+			}
+		}
+		return changed;
+	}
+
+	private boolean increaseEdge(DistanceMatrix d, int u, int v, double old, boolean undirected) {
+		// affected[i] = ciljevi j kojima je stari brid bio na nekom najkraćem putu iz i
+		BitSet[] affected = new BitSet[n];
+		markPairsUsingEdge(d, u, v, old, affected);
+		if (undirected) markPairsUsingEdge(d, v, u, old, affected);
+
+		int[] rows = IntStream.range(0, n).filter(i -> affected[i] != null).toArray();
+		if (rows.length == 0) return false;
+
+		// Simetrično spremanje upisuje i (j, i) pa retci nisu neovisni
+		IntStream stream = Arrays.stream(rows);
+		if (!undirected) stream = stream.parallel();
+		stream.forEach(i -> recomputeRow(d, i, affected[i]));
+		return true;
+	}
+
+	// Parovi (i, j) s d(i, u) + old + d(v, j) = d(i, j). Zbrojevi se ne podudaraju nužno
+	// do zadnjeg bita s rezultatom Floyd-Warshalla, pa je usporedba s relativnom tolerancijom:
+	// suvišan par samo se ponovno izračuna, a propušten bi ostao prekratak.
+	private void markPairsUsingEdge(DistanceMatrix d, int u, int v, double old, BitSet[] affected) {
+		double[] fromV = new double[n];
+		for (int j = 0; j < n; j++) fromV[j] = d.get(v, j);
+		for (int i = 0; i < n; i++) {
+			double viaEdge = d.get(i, u) + old;
+			if (viaEdge == Double.POSITIVE_INFINITY) continue;
+			for (int j = 0; j < n; j++) {
+				double dij = d.get(i, j);
+				if (dij == Double.POSITIVE_INFINITY || viaEdge + fromV[j] > dij + PATH_TOLERANCE * dij) continue;
+				if (affected[i] == null) affected[i] = new BitSet(n);
+				affected[i].set(j);
+			}
+		}
+	}
+
+	// Dijkstra nad gustom matricom iz izvora s, O(n^2). Prepisuju se samo ciljevi
+	// iz targets - ostali putevi ne koriste promijenjeni brid pa vrijede i dalje.
+	private void recomputeRow(DistanceMatrix d, int s, BitSet targets) {
+		DistanceMatrix w = weights();
+		double[] dist = new double[n];
+		boolean[] done = new boolean[n];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		dist[s] = 0;
+
+		for (int iter = 0; iter < n; iter++) {
+			int x = -1;
+			for (int y = 0; y < n; y++) {
+				if (!done[y] && (x < 0 || dist[y] < dist[x])) x = y;
+			}
+			if (dist[x] == Double.POSITIVE_INFINITY) break;
+			done[x] = true;
+
+			for (int y = 0; y < n; y++) {
+				double wxy = w.get(x, y);
+				if (done[y] || wxy == Double.POSITIVE_INFINITY) continue;
+				double alt = dist[x] + wxy;
+				if (alt < dist[y]) dist[y] = alt;
+			}
+		}
+
+		for (int j = targets.nextSetBit(0); j >= 0; j = targets.nextSetBit(j + 1)) {
+			set(d, s, j, dist[j]);
+		}
+	}
+
+	private static void set(DistanceMatrix m, int i, int j, double value) {
+		if (m instanceof FlatDistanceMatrix) {
+			((FlatDistanceMatrix) m).set(i, j, value);
+		} else if (m instanceof SymmetricDistanceMatrix) {
+			((SymmetricDistanceMatrix) m).set(i, j, value);
+		} else {
+			throw new UnsupportedOperationException("Read-only distance matrix: " + m.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Sljedeći vrh na najkraćem putu od 'from' do 'to', -1 ako puta nema.
+	 */
+	public int nextHop(int from, int to) {
+		if (successors == null) return to;
+		return successor(from, to);
+	}
+
+	private int successor(int i, int j) {
+		AtomicReferenceArray<int[]> rows = successors;
+		int[] row = rows.get(i);
+		if (row == null) {
+			row = new int[n];
+			Arrays.fill(row, UNKNOWN_SUCCESSOR);
+			if (!rows.compareAndSet(i, null, row)) row = rows.get(i);
+		}
+		// Upis je idempotentan (ista vrijednost iz bilo koje dretve), pa nije sinkroniziran
+		int next = row[j];
+		if (next == UNKNOWN_SUCCESSOR) {
+			next = computeSuccessor(i, j);
+			row[j] = next;
+		}
+		return next;
+	}
+
+	/**
+	 * Sljedbenik iz težina i minDistances(): susjed k od i s najmanjim w(i, k) + d(k, j),
+	 * kod jednakih onaj bliži cilju (napredak i uz bridove težine 0). Direktan brid koji
+	 * je već najkraći put uzima se bez pretrage, inače O(n).
+	 */
+	private int computeSuccessor(int i, int j) {
+		if (i == j) return i;
+		DistanceMatrix d = minDistances();
+		double dij = d.get(i, j);
+		if (dij == Double.POSITIVE_INFINITY) return -1;
+		DistanceMatrix w = weights();
+		if (w.get(i, j) == dij) return j;
+
+		int best = -1;
+		double bestCost = Double.POSITIVE_INFINITY;
+		double bestRest = Double.POSITIVE_INFINITY;
+		for (int k = 0; k < n; k++) {
+			double wik = w.get(i, k);
+			if (k == i || wik == Double.POSITIVE_INFINITY) continue;
+			double rest = d.get(k, j);
+			double cost = wik + rest;
+			if (cost < bestCost || (cost == bestCost && rest < bestRest)) {
+				best = k;
+				bestCost = cost;
+				bestRest = rest;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Dodaje u 'out' vrhove najkraćeg puta od 'from' do 'to', bez samog 'from'.
+	 * Složenost je proporcionalna duljini puta.
+	 */
+	public void appendPath(int from, int to, List<Integer> out) {
+		if (successors == null) {
+			if (from != to) out.add(to);
+			return;
+		}
+		int current = from;
+		int steps = 0;
+		while (current != to) {
+			current = successor(current, to);
+			if (current < 0 || ++steps > n) {
+				throw new IllegalStateException("No shortest path from " + from + " to " + to);
+			}
+			out.add(current);
+		}
+	}
+
+	/**
+	 * Najkraći put [from, ..., to] u originalnom grafu.
+	 */
+	public List<Integer> shortestPath(int from, int to) {
+		List<Integer> path = new ArrayList<>();
+		path.add(from);
+		appendPath(from, to, path);
+		return path;
+	}
+
+	/**
+	 * Pretvara redoslijed posjeta (npr. [0, 3, 1, 0]) u punu šetnju po bridovima
+	 * originalnog grafa, umetanjem najkraćih puteva između uzastopnih vrhova.
+	 */
+	public List<Integer> expandWalk(List<Integer> sequence) {
+		List<Integer> walk = new ArrayList<>();
+		if (sequence.isEmpty()) return walk;
+
+		walk.add(sequence.get(0));
+		for (int i = 0; i < sequence.size() - 1; i++) {
+			appendPath(sequence.get(i), sequence.get(i + 1), walk);
+		}
+		return walk;
 	}
 	
 	@Override
 	public String toString() {
-		for(int i = 0; i < distance_matrix.length; i++) {
-			for(int j= 0; j < distance_matrix.length; j++) {
-				System.out.print(distance_matrix[i][j] + " ");
+		DistanceMatrix weights = distances();
+		for(int i = 0; i < n; i++) {
+			for(int j= 0; j < n; j++) {
+				System.out.print(weights.get(i, j) + " ");
 			}
 			System.out.println();
 		}
-		for(int i = 0; i < min_distances.length; i++) {
-			for(int j= 0; j < min_distances.length; j++) {
-				System.out.print(min_distances[i][j] + " ");
+		DistanceMatrix min_distances = minDistances();
+		for(int i = 0; i < n; i++) {
+			for(int j= 0; j < n; j++) {
+				System.out.print(min_distances.get(i, j) + " ");
 			}
 			System.out.println();
 		}
 		
-		for(int[] hops : nextHops) {
+		for(int u = 0; u < n; u++) {
+			int[] hops = getHops(u);
 			for(int i = 0; i < hops.length; i++)
 				System.out.print(hops[i]);
 			System.out.println();
@@ -61,62 +499,170 @@ public class Graph {
 
     public static double[][] floydWarshall(double[][] w) {
 	    int n = w.length;
-	    double[][] dist = new double[n][n];
+	    return new FlatDistanceMatrix(floydWarshallFlat(w, null), n).toArray();
+	}
 
-	    // copy
-	    for (int i = 0; i < n; i++) {
-	        System.arraycopy(w[i], 0, dist[i], 0, n);
+	/**
+	 * Floyd-Warshall nad row-major poljem: rezultat (i, j) je na indeksu i * n + j.
+	 * @param next ako nije null (duljine n*n), puni se matricom sljedbenika
+	 */
+    public static double[] floydWarshallFlat(double[][] w, int[] next) {
+	    int n = w.length;
+	    double[] dist = copyWithNext(w, next);
+	    if (n >= BLOCKED_FW_THRESHOLD) {
+	        floydWarshallBlocked(dist, n, FW_BLOCK_SIZE, next);
+	    } else {
+	        floydWarshallSimple(dist, n, next);
 	    }
+	    return dist;
+	}
 
+    public static void floydWarshallSimple(double[] dist, int n, int[] next) {
 	    for (int k = 0; k < n; k++) {
+	        int rowK = k * n;
 	        for (int i = 0; i < n; i++) {
-	            double dik = dist[i][k];
+	            int rowI = i * n;
+	            double dik = dist[rowI + k];
 	            if (dik == Double.POSITIVE_INFINITY) continue;
 	            for (int j = 0; j < n; j++) {
-	                double alt = dik + dist[k][j];
-	                if (alt < dist[i][j]) dist[i][j] = alt;
+	                double alt = dik + dist[rowK + j];
+	                if (alt < dist[rowI + j]) {
+	                    dist[rowI + j] = alt;
+	                    if (next != null) next[rowI + j] = next[rowI + k];
+	                }
 	            }
 	        }
 	    }
+	}
+
+	/**
+	 * Blokovani (tiled) Floyd-Warshall u tri faze po svakom k-bloku:
+	 * 1. dijagonalni blok (k, k)
+	 * 2. blokovi u retku k i stupcu k - paralelno, ovise samo o dijagonalnom bloku
+	 * 3. svi ostali blokovi - paralelno na common poolu, ovise samo o fazi 2
+	 * Blok od 64x64 double vrijednosti stane u L1/L2 cache pa unutarnja petlja
+	 * ne čeka memoriju, a faza 3 (gotovo sav posao) skalira s brojem jezgri.
+	 */
+	public static void floydWarshallBlocked(double[] dist, int n, int blockSize, int[] next) {
+	    int blocks = (n + blockSize - 1) / blockSize;
+
+	    for (int kb = 0; kb < blocks; kb++) {
+	        final int k0 = kb * blockSize;
+	        final int k1 = Math.min(n, k0 + blockSize);
+	        final int diag = kb;
+
+	        // Faza 1: dijagonalni blok
+	        relaxBlock(dist, n, next, k0, k1, k0, k1, k0, k1);
+
+	        // Faza 2: redak i stupac k-bloka
+	        IntStream.range(0, blocks).parallel().forEach(b -> {
+	            if (b == diag) return;
+	            int b0 = b * blockSize;
+	            int b1 = Math.min(n, b0 + blockSize);
+	            relaxBlock(dist, n, next, k0, k1, b0, b1, k0, k1);
+	            relaxBlock(dist, n, next, b0, b1, k0, k1, k0, k1);
+	        });
+
+	        // Faza 3: preostali blokovi
+	        IntStream.range(0, blocks * blocks).parallel().forEach(idx -> {
+	            int ib = idx / blocks;
+	            int jb = idx % blocks;
+	            if (ib == diag || jb == diag) return;
+	            int i0 = ib * blockSize;
+	            int j0 = jb * blockSize;
+	            relaxBlock(dist, n, next, i0, Math.min(n, i0 + blockSize), j0, Math.min(n, j0 + blockSize), k0, k1);
+	        });
+	    }
+	}
+
+	// dist[i][j] = min(dist[i][j], dist[i][k] + dist[k][j]) za i, j, k unutar blokova
+	private static void relaxBlock(double[] dist, int n, int[] next, int i0, int i1, int j0, int j1, int k0, int k1) {
+	    for (int k = k0; k < k1; k++) {
+	        int rowK = k * n;
+	        for (int i = i0; i < i1; i++) {
+	            int rowI = i * n;
+	            double dik = dist[rowI + k];
+	            if (dik == Double.POSITIVE_INFINITY) continue;
+	            for (int j = j0; j < j1; j++) {
+	                double alt = dik + dist[rowK + j];
+	                if (alt < dist[rowI + j]) {
+	                    dist[rowI + j] = alt;
+	                    if (next != null) next[rowI + j] = next[rowI + k];
+	                }
+	            }
+	        }
+	    }
+	}
+
+	// Row-major kopija ulazne matrice; ako je next zadan, inicijalizira ga direktnim bridovima
+	private static double[] copyWithNext(double[][] w, int[] next) {
+	    int n = w.length;
+	    double[] dist = new double[FlatDistanceMatrix.length(n)];
+
+	    // copy
+	    for (int i = 0; i < n; i++) {
+	        System.arraycopy(w[i], 0, dist, i * n, n);
+	    }
+
+	    if (next != null) {
+	        initNext(w, next);
+	    }
 	    return dist;
 	}
 
-	public static List<int[]> floydWarshallNext(double[][] w, double[][] dist) {
+	// Sljedbenici prije Floyd-Warshalla: direktni bridovi, -1 gdje brida nema
+	private static void initNext(double[][] w, int[] next) {
+	    int n = w.length;
+	    for (int i = 0; i < n; i++) {
+	        for (int j = 0; j < n; j++) {
+	            if (i == j) next[i * n + j] = i;
+	            else next[i * n + j] = w[i][j] == Double.POSITIVE_INFINITY ? -1 : j;
+	        }
+	    }
+	}
+
+	public static List<int[]> floydWarshallNext(double[][] w, DistanceMatrix dist) {
 		
 		int n = w.length;
 	    List<int[]> result = new ArrayList<>();
 
 	    for (int u = 0; u < n; u++) {
-	        List<Integer> hops = new ArrayList<>();
+	        result.add(usefulHops(view(w), dist, u));
+	    }
 
-	        for (int k = 0; k < n; k++) {
-	            if (u == k) continue;
-	            if (w[u][k] == Double.POSITIVE_INFINITY) continue; // nije susjed
+	    return result;
 
-	            boolean useful = false;
+	}
 
-	            // tražimo barem jedno v kojem je k prvi korak optimalnog puta
-	            for (int v = 0; v < n; v++) {
-	                if (u == v) continue;
+	// Susjedi k od u takvi da je k prvi korak optimalnog puta od u do barem jednog v
+	private static int[] usefulHops(DistanceMatrix w, DistanceMatrix dist, int u) {
+		int n = w.size();
+	    List<Integer> hops = new ArrayList<>();
 
-	                double direct = dist[u][v];
-	                double viaK = w[u][k] + dist[k][v];
+	    for (int k = 0; k < n; k++) {
+	        if (u == k) continue;
+	        if (w.get(u, k) == Double.POSITIVE_INFINITY) continue; // nije susjed
 
-	                // ako je k dopustiv prvi korak za ijedan v
-	                if (viaK == direct) {
-	                    useful = true;
-	                    break;
-	                }
-	            }
+	        boolean useful = false;
+
+	        // tražimo barem jedno v kojem je k prvi korak optimalnog puta
+	        for (int v = 0; v < n; v++) {
+	            if (u == v) continue;
 
-	            if (useful) hops.add(k);
+	            double direct = dist.get(u, v);
+	            double viaK = w.get(u, k) + dist.get(k, v);
+
+	            // ako je k dopustiv prvi korak za ijedan v
+	            if (viaK == direct) {
+	                useful = true;
+	                break;
+	            }
 	        }
 
-	        result.add(hops.stream().mapToInt(x -> x).toArray());
+	        if (useful) hops.add(k);
 	    }
 
-	    return result;
-
+	    return hops.stream().mapToInt(x -> x).toArray();
 	}
 	
 	
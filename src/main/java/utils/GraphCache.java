@@ -0,0 +1,312 @@
+package utils;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache predobrade grafa adresiran sadržajem matrice udaljenosti.
+ *
+ * Ključ je 128-bitni hash svih težina ({@link #key(double[][])}), pa ista instanca
+ * učitana iz različitih datoteka ili drivera dijeli isti unos. Po ključu se pamti
+ * minDistances() (Floyd-Warshall, O(n^3)); sljedbenici se iz nje izvode po potrebi
+ * u Graph. Simetrične matrice dobivaju SYMMETRIC spremanje. Rješenja solvera
+ * se ne pamte: driveri nad data/ čitaju optimum iz zaglavlja instance, a heuristike
+ * se pokreću ponovno jer se mjeri njihovo vrijeme.
+ *
+ * Memorija je ograničena u bajtovima, ne brojem unosa: unos s najkraćim putevima
+ * zauzima 8 n^2 bajtova (4 n^2 za simetričnu matricu), pa već nekoliko grafova s
+ * n u tisućama puni stotine MB. Kad procijenjeni zbroj prijeđe kapacitet,
+ * izbacuju se najdulje nekorišteni unosi (LRU); unos veći od cijelog kapaciteta se
+ * vraća pozivatelju, ali se ne zadržava. Ako je zadan direktorij, unosi se zapisuju
+ * i na disk (ime datoteke = hex ključa) pa ih idući pokreti ne računaju ponovno.
+ * Sudar dva 128-bitna hasha se ne provjerava.
+ */
+public final class GraphCache {
+
+    // 256 MB: npr. ~30 flat ili ~60 simetričnih grafova s n = 1000
+    public static final long DEFAULT_CAPACITY_BYTES = 256L << 20;
+
+    private static final int APSP_MAGIC = 0x4d435742; // "MCWB", bez sljedbenika
+
+    private static final Lazy<GraphCache> SHARED = new Lazy<>(() -> {
+        long capacity = Long.getLong("graphcache.bytes", DEFAULT_CAPACITY_BYTES);
+        String dir = System.getProperty("graphcache.dir");
+        return new GraphCache(capacity, dir != null ? Paths.get(dir) : null);
+    });
+
+    private final long capacity;
+    private final Path directory;
+    // Redoslijed pristupa (LRU); zaštićeno s this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GraphCache(long capacityBytes) {
+        this(capacityBytes, null);
+    }
+
+    /**
+     * @param capacityBytes Najviše procijenjenih bajtova unosa u memoriji
+     * @param directory Direktorij za trajno spremanje; null = samo memorija
+     */
+    public GraphCache(long capacityBytes, Path directory) {
+        if (capacityBytes < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacityBytes);
+        }
+        this.capacity = capacityBytes;
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create cache directory " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Zajednički cache za drivere. Kapacitet (u bajtovima) i direktorij zadaju se system
+     * propertyjima graphcache.bytes i graphcache.dir (bez direktorija samo memorija).
+     */
+    public static GraphCache shared() {
+        return SHARED.get();
+    }
+
+    /**
+     * Graf nad matricom s već izračunatim najkraćim putevima. Ako matrica još nije
+     * viđena, Floyd-Warshall se pokreće odmah i rezultat se sprema.
+     * Svaki poziv vraća novi Graph s vlastitom kopijom podataka, pa updateEdge
+     * na njemu ne mijenja cache.
+     */
+    public Graph graph(double[][] distance_matrix) {
+        Key key = key(distance_matrix);
+        int n = distance_matrix.length;
+        // Format ovisi samo o sadržaju matrice, pa je isti za isti ključ
+        DistanceMatrix.Storage storage = DistanceMatrix.storageFor(distance_matrix);
+        Entry entry = entry(key);
+
+        double[] dist = entry.dist;
+        if (dist == null && directory != null) {
+            if (readApsp(key, n, storage, entry)) {
+                dist = entry.dist;
+                charge(key, entry);
+            }
+        }
+        if (dist != null) {
+            hits.incrementAndGet();
+            return new Graph(distance_matrix, wrap(dist.clone(), n, storage), storage);
+        }
+
+        misses.incrementAndGet();
+        Graph g = new Graph(distance_matrix, storage);
+        entry.dist = data(g.minDistances()).clone();
+        charge(key, entry);
+        if (directory != null) writeApsp(key, n, entry);
+        return g;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * Briše unose iz memorije (datoteke na disku ostaju).
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Procijenjeni bajtovi unosa u memoriji.
+     */
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private synchronized Entry entry(Key key) {
+        return entries.computeIfAbsent(key, k -> new Entry());
+    }
+
+    /**
+     * Ponovno procjenjuje veličinu unosa nakon promjene i izbacuje najdulje
+     * nekorištene unose dok je zbroj iznad kapaciteta. Unos koji sam ne stane
+     * izbacuje se zadnji.
+     */
+    private synchronized void charge(Key key, Entry entry) {
+        if (entries.get(key) != entry) return; // već izbačen
+        long size = entry.estimateBytes();
+        usedBytes += size - entry.bytes;
+        entry.bytes = size;
+
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > capacity && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (eldest == entry && it.hasNext()) continue;
+            usedBytes -= eldest.bytes;
+            it.remove();
+        }
+    }
+
+    // Interno polje minDistances(): n^2 (FLAT) ili gornji trokut (SYMMETRIC)
+    private static double[] data(DistanceMatrix d) {
+        if (d instanceof SymmetricDistanceMatrix) {
+            return ((SymmetricDistanceMatrix) d).data();
+        }
+        return ((FlatDistanceMatrix) d).data();
+    }
+
+    private static DistanceMatrix wrap(double[] data, int n, DistanceMatrix.Storage storage) {
+        return storage == DistanceMatrix.Storage.SYMMETRIC
+                ? new SymmetricDistanceMatrix(data, n)
+                : new FlatDistanceMatrix(data, n);
+    }
+
+    private static int dataLength(int n, DistanceMatrix.Storage storage) {
+        return storage == DistanceMatrix.Storage.SYMMETRIC
+                ? SymmetricDistanceMatrix.packedLength(n)
+                : FlatDistanceMatrix.length(n);
+    }
+
+    // Unos za jednu matricu; polje se postavlja jednom i zatim samo čita
+    private static final class Entry {
+        volatile double[] dist;
+        // Zadnja procjena veličine, zbrojena u usedBytes
+        long bytes;
+
+        // 8 B po udaljenosti
+        long estimateBytes() {
+            double[] d = dist;
+            return d != null ? 8L * d.length : 0;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // HASH
+    // ═══════════════════════════════════════════════════════════
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+
+    /**
+     * 128-bitni hash matrice: dvije neovisne 64-bitne trake u stilu xxHash64
+     * nad bitovima svake težine, s finalnim miješanjem kao u MurmurHash3.
+     * Jedan prolaz kroz n^2 vrijednosti, bez alokacija.
+     */
+    public static Key key(double[][] m) {
+        int n = m.length;
+        long h1 = P1 + n;
+        long h2 = P2 ^ ((long) n << 32);
+        for (int i = 0; i < n; i++) {
+            double[] row = m[i];
+            for (int j = 0; j < row.length; j++) {
+                long bits = Double.doubleToLongBits(row[j]);
+                h1 = Long.rotateLeft(h1 + bits * P2, 31) * P1;
+                h2 = Long.rotateLeft(h2 ^ (bits * P4), 27) * P3 + P1;
+            }
+        }
+        long hi = fmix(h1 ^ Long.rotateLeft(h2, 17));
+        long lo = fmix(h2 + hi);
+        return new Key(hi, lo);
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    public static final class Key {
+        private final long hi;
+        private final long lo;
+
+        Key(long hi, long lo) {
+            this.hi = hi;
+            this.lo = lo;
+        }
+
+        public String hex() {
+            return String.format("%016x%016x", hi, lo);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hi == k.hi && lo == k.lo;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lo ^ (lo >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return hex();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════
+    // DISK
+    // ═══════════════════════════════════════════════════════════
+
+    // Greške pri čitanju znače samo promašaj; zapis ide preko privremene datoteke
+    // pa prekinuti pokret ne ostavlja polovičan unos.
+
+    private boolean readApsp(Key key, int n, DistanceMatrix.Storage storage, Entry entry) {
+        Path file = directory.resolve(key.hex() + ".apsp");
+        if (!Files.exists(file)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int length = dataLength(n, storage);
+            if (in.readInt() != APSP_MAGIC || in.readInt() != n || in.readInt() != length) return false;
+            double[] dist = new double[length];
+            for (int i = 0; i < dist.length; i++) dist[i] = in.readDouble();
+            entry.dist = dist;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void writeApsp(Key key, int n, Entry entry) {
+        double[] dist = entry.dist;
+        write(directory.resolve(key.hex() + ".apsp"), out -> {
+            out.writeInt(APSP_MAGIC);
+            out.writeInt(n);
+            out.writeInt(dist.length);
+            for (double d : dist) out.writeDouble(d);
+        });
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static void write(Path file, Writer writer) {
+        try {
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                writer.write(out);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Warning: could not write cache file " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -88,14 +88,7 @@ public class GraphGenerator {
     
     public static double[][] generateMetricGraph(int n) {
         double[][] graph = new double[n][n];
-        Random rand = new Random();
-        
-        // Generiraj n točaka u 2D prostoru (0-1, 0-1)
-        double[][] points = new double[n][2];
-        for(int i=0; i<n; i++) {
-            points[i][0] = rand.nextDouble(); // x
-            points[i][1] = rand.nextDouble(); // y
-        }
+        double[][] points = randomPoints(n, new Random());
 
         for (int i = 0; i < n; i++) {
             for (int j = i + 1; j < n; j++) { 
@@ -110,6 +103,28 @@ public class GraphGenerator {
         }
 		return graph;
     }
+
+    /**
+     * Isti razmještaj točaka kao generateMetricGraph, ali bez n x n matrice -
+     * udaljenosti se računaju iz koordinata (O(n) memorije).
+     */
+    public static EuclideanGraph generateEuclideanGraph(int n) {
+        return EuclideanGraph.fromPoints(randomPoints(n, new Random()));
+    }
+
+    public static EuclideanGraph generateEuclideanGraph(int n, long seed) {
+        return EuclideanGraph.fromPoints(randomPoints(n, new Random(seed)));
+    }
+
+    // Generiraj n točaka u 2D prostoru (0-1, 0-1)
+    private static double[][] randomPoints(int n, Random rand) {
+        double[][] points = new double[n][2];
+        for(int i=0; i<n; i++) {
+            points[i][0] = rand.nextDouble(); // x
+            points[i][1] = rand.nextDouble(); // y
+        }
+        return points;
+    }
     
 
 }
\ No newline at end of file
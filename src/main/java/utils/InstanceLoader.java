@@ -60,7 +60,7 @@ public class InstanceLoader {
             if (line.isEmpty()) continue;
             
             // Parse metadata
-            if (line.startsWith("# Graph size:")) {
+            if (line.startsWith("# Graph size:") || line.startsWith("# N:")) {
                 n = Integer.parseInt(line.split(":")[1].trim());
                 distances = new double[n][n];
             } else if (line.startsWith("# Optimal cost:")) {
@@ -92,7 +92,11 @@ public class InstanceLoader {
             }
         }
         
-        return new Graph(distances,optimalCost, optimalWalk);
+        // Ista instanca se često učitava više puta (npr. po konfiguraciji) - najkraći putevi iz cachea
+        Graph g = GraphCache.shared().graph(distances);
+        g.optimalCost = optimalCost;
+        g.optimalWalk = optimalWalk;
+        return g;
     }
     
 
@@ -0,0 +1,338 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * 2D k-d stablo nad fiksnim skupom točaka (npr. vrhovi {@link EuclideanGraph}).
+ *
+ * Izgradnja je O(n log n) (medijan po izmjeničnoj osi, listovi do LEAF_SIZE točaka).
+ * Upiti:
+ * - knn: k najbližih točaka, O(log n + k) u prosjeku
+ * - radius: sve točke unutar zadanog radijusa
+ * - {@link Remaining}: "najbliža neposjećena" s brisanjem, za konstrukcijske heuristike
+ *
+ * Stablo se nakon izgradnje ne mijenja pa ga mogu dijeliti više dretvi;
+ * stanje brisanja živi u zasebnom {@link Remaining} objektu po pretrazi.
+ */
+public final class KdTree {
+
+    private static final int LEAF_SIZE = 8;
+
+    private final double[] xs;
+    private final double[] ys;
+
+    // Točke poredane tako da je svaki čvor kontinuirani raspon [lo, hi)
+    private final int[] order;
+
+    // Čvorovi: left/right = -1 za list
+    private int[] lo, hi, left, right, parent;
+    private boolean[] splitX;
+    private double[] split;
+    private int nodeCount;
+
+    // List u kojem se nalazi točka (za brisanje)
+    private final int[] leafOf;
+
+    public KdTree(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("xs and ys must have the same length");
+        }
+        this.xs = xs;
+        this.ys = ys;
+        int n = xs.length;
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        this.leafOf = new int[n];
+
+        int capacity = Math.max(1, 4 * n / LEAF_SIZE + 1);
+        lo = new int[capacity];
+        hi = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        splitX = new boolean[capacity];
+        split = new double[capacity];
+        if (n > 0) build(0, n, -1, true);
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    private int build(int from, int to, int par, boolean byX) {
+        if (nodeCount == lo.length) grow();
+        int node = nodeCount++;
+        lo[node] = from;
+        hi[node] = to;
+        parent[node] = par;
+
+        if (to - from <= LEAF_SIZE) {
+            left[node] = right[node] = -1;
+            for (int i = from; i < to; i++) leafOf[order[i]] = node;
+            return node;
+        }
+
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, byX);
+        splitX[node] = byX;
+        split[node] = coord(order[mid], byX);
+        int l = build(from, mid, node, !byX);
+        int r = build(mid, to, node, !byX);
+        left[node] = l;
+        right[node] = r;
+        return node;
+    }
+
+    private void grow() {
+        int cap = lo.length * 2;
+        lo = Arrays.copyOf(lo, cap);
+        hi = Arrays.copyOf(hi, cap);
+        left = Arrays.copyOf(left, cap);
+        right = Arrays.copyOf(right, cap);
+        parent = Arrays.copyOf(parent, cap);
+        splitX = Arrays.copyOf(splitX, cap);
+        split = Arrays.copyOf(split, cap);
+    }
+
+    // Quickselect: nakon poziva je order[k] na svom mjestu, lijevo manji, desno veći ili jednaki
+    private void select(int l, int r, int k, boolean byX) {
+        while (l < r) {
+            double pivot = coord(order[(l + r) >>> 1], byX);
+            int i = l, j = r;
+            while (i <= j) {
+                while (coord(order[i], byX) < pivot) i++;
+                while (coord(order[j], byX) > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) r = j;
+            else if (k >= i) l = i;
+            else return;
+        }
+    }
+
+    private double coord(int p, boolean byX) {
+        return byX ? xs[p] : ys[p];
+    }
+
+    private double dist2(int p, double x, double y) {
+        double dx = xs[p] - x;
+        double dy = ys[p] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * k najbližih točaka točki v (bez same v), uzlazno po udaljenosti.
+     */
+    public int[] knn(int v, int k) {
+        return knn(xs[v], ys[v], k, v);
+    }
+
+    /**
+     * k najbližih točaka zadanoj poziciji, uzlazno po udaljenosti.
+     */
+    public int[] knn(double x, double y, int k) {
+        return knn(x, y, k, -1);
+    }
+
+    private int[] knn(double x, double y, int k, int exclude) {
+        k = Math.min(k, size() - (exclude >= 0 ? 1 : 0));
+        if (k <= 0) return new int[0];
+        Knn buf = new Knn(k);
+        knn(0, x, y, exclude, buf);
+        return buf.count == k ? buf.idx : Arrays.copyOf(buf.idx, buf.count);
+    }
+
+    private void knn(int node, double x, double y, int exclude, Knn buf) {
+        if (left[node] < 0) {
+            for (int i = lo[node]; i < hi[node]; i++) {
+                int p = order[i];
+                if (p != exclude) buf.offer(p, dist2(p, x, y));
+            }
+            return;
+        }
+        double diff = (splitX[node] ? x : y) - split[node];
+        int near = diff < 0 ? left[node] : right[node];
+        int far = diff < 0 ? right[node] : left[node];
+        knn(near, x, y, exclude, buf);
+        if (diff * diff < buf.worst()) knn(far, x, y, exclude, buf);
+    }
+
+    // Sortirani spremnik k najboljih (kvadrat udaljenosti)
+    private static final class Knn {
+        final int[] idx;
+        final double[] d2;
+        int count;
+
+        Knn(int k) {
+            idx = new int[k];
+            d2 = new double[k];
+        }
+
+        double worst() {
+            return count < idx.length ? Double.POSITIVE_INFINITY : d2[count - 1];
+        }
+
+        void offer(int p, double d) {
+            int k = idx.length;
+            if (count == k && d >= d2[k - 1]) return;
+            int pos = count < k ? count++ : k - 1;
+            while (pos > 0 && d2[pos - 1] > d) {
+                d2[pos] = d2[pos - 1];
+                idx[pos] = idx[pos - 1];
+                pos--;
+            }
+            d2[pos] = d;
+            idx[pos] = p;
+        }
+    }
+
+    /**
+     * Sve točke na udaljenosti <= r od zadane pozicije (neporedano).
+     */
+    public int[] radius(double x, double y, double r) {
+        IntList out = new IntList();
+        if (size() > 0) radius(0, x, y, r * r, out);
+        return out.toArray();
+    }
+
+    /**
+     * Sve točke na udaljenosti <= r od točke v (bez same v).
+     */
+    public int[] radius(int v, double r) {
+        IntList out = new IntList();
+        radius(0, xs[v], ys[v], r * r, out);
+        out.remove(v);
+        return out.toArray();
+    }
+
+    private void radius(int node, double x, double y, double r2, IntList out) {
+        if (left[node] < 0) {
+            for (int i = lo[node]; i < hi[node]; i++) {
+                int p = order[i];
+                if (dist2(p, x, y) <= r2) out.add(p);
+            }
+            return;
+        }
+        double diff = (splitX[node] ? x : y) - split[node];
+        if (diff < 0 || diff * diff <= r2) radius(left[node], x, y, r2, out);
+        if (diff >= 0 || diff * diff <= r2) radius(right[node], x, y, r2, out);
+    }
+
+    private static final class IntList {
+        int[] data = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        void remove(int v) {
+            for (int i = 0; i < size; i++) {
+                if (data[i] == v) {
+                    data[i] = data[--size];
+                    return;
+                }
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * Novi skup preostalih (neobrisanih) točaka - na početku sve.
+     */
+    public Remaining remaining() {
+        return new Remaining();
+    }
+
+    /**
+     * Skup točaka iz kojeg se briše, s upitom "najbliža preostala".
+     * Broj preostalih točaka po čvoru omogućuje preskakanje praznih podstabala,
+     * pa je cijela nearest-neighbor konstrukcija O(n log n) u prosjeku.
+     * Nije thread-safe; svaka pretraga koristi svoj objekt.
+     */
+    public final class Remaining {
+        private final boolean[] removed = new boolean[KdTree.this.size()];
+        private final int[] alive = new int[nodeCount];
+        private int count = KdTree.this.size();
+
+        private Remaining() {
+            for (int node = 0; node < nodeCount; node++) {
+                alive[node] = hi[node] - lo[node];
+            }
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public boolean contains(int v) {
+            return !removed[v];
+        }
+
+        public void remove(int v) {
+            if (removed[v]) return;
+            removed[v] = true;
+            count--;
+            for (int node = leafOf[v]; node >= 0; node = parent[node]) {
+                alive[node]--;
+            }
+        }
+
+        /**
+         * Najbliža preostala točka točki v, ne računajući samu v; -1 ako takve nema.
+         */
+        public int nearest(int v) {
+            return nearest(xs[v], ys[v], v);
+        }
+
+        public int nearest(double x, double y) {
+            return nearest(x, y, -1);
+        }
+
+        private int nearest(double x, double y, int exclude) {
+            if (count == 0 || (count == 1 && exclude >= 0 && !removed[exclude])) return -1;
+            best = -1;
+            bestD2 = Double.POSITIVE_INFINITY;
+            search(0, x, y, exclude);
+            return best;
+        }
+
+        private int best;
+        private double bestD2;
+
+        private void search(int node, double x, double y, int exclude) {
+            if (alive[node] == 0) return;
+            if (left[node] < 0) {
+                for (int i = lo[node]; i < hi[node]; i++) {
+                    int p = order[i];
+                    if (removed[p] || p == exclude) continue;
+                    double d = dist2(p, x, y);
+                    if (d < bestD2) {
+                        bestD2 = d;
+                        best = p;
+                    }
+                }
+                return;
+            }
+            double diff = (splitX[node] ? x : y) - split[node];
+            int near = diff < 0 ? left[node] : right[node];
+            int far = diff < 0 ? right[node] : left[node];
+            search(near, x, y, exclude);
+            if (diff * diff < bestD2) search(far, x, y, exclude);
+        }
+    }
+}
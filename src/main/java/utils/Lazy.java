@@ -0,0 +1,49 @@
+package utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Vrijednost koja se računa pri prvom pristupu i zatim pamti.
+ * Sigurno za više dretvi (double-checked locking): izračun se izvodi najviše jednom.
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private Supplier<? extends T> supplier;
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Već izračunata vrijednost.
+     */
+    public static <T> Lazy<T> of(T value) {
+        Lazy<T> lazy = new Lazy<>(null);
+        lazy.value = value;
+        return lazy;
+    }
+
+    @Override
+    public T get() {
+        T v = value;
+        if (v == null) {
+            synchronized (this) {
+                v = value;
+                if (v == null) {
+                    v = supplier.get();
+                    value = v;
+                    supplier = null; // oslobodi reference koje drži izračun
+                }
+            }
+        }
+        return v;
+    }
+
+    /**
+     * @return true ako je vrijednost već izračunata
+     */
+    public boolean isComputed() {
+        return value != null;
+    }
+}
@@ -0,0 +1,293 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Rijetki graf (npr. cestovna mreža prosječnog stupnja ~3) spremljen u CSR obliku.
+ *
+ * Umjesto n x n matrice i Floyd-Warshalla, najkraći putevi računaju se Dijkstrom
+ * samo iz obaveznih vrhova (required), paralelno po izvorima. Solveri vide
+ * {@link Graph} nad k obaveznih vrhova čije su težine (distances()) metričko
+ * zatvorenje (k x k), pa sve postojeće heuristike rade bez izmjena. Indeks i u tom grafu
+ * odgovara vrhu {@link #toNetwork(int)} u originalnoj mreži.
+ *
+ * Memorija: O(N + E) za mrežu + O(k^2) za zatvorenje, umjesto O(N^2).
+ */
+public class SparseGraph extends Graph {
+
+    // CSR: susjedi vrha v su colIdx[rowPtr[v] .. rowPtr[v + 1]) s težinama weights[...]
+    private final int[] rowPtr;
+    private final int[] colIdx;
+    private final double[] weights;
+    private final int[] required;
+
+    // Stablo prethodnika iz svakog obaveznog vrha, računa se tek kad zatreba za rekonstrukciju puta
+    private final Lazy<int[]>[] predecessors;
+
+    private SparseGraph(int[] rowPtr, int[] colIdx, double[] weights, int[] required, double[][] closure,
+                        DistanceMatrix.Storage storage) {
+        super(closure, DistanceMatrix.of(closure, storage), storage);
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.weights = weights;
+        this.required = required;
+        this.predecessors = newPredecessors(required.length);
+    }
+
+    /**
+     * @param numVertices Broj vrhova mreže
+     * @param rowPtr CSR pokazivači redaka (duljina numVertices + 1)
+     * @param colIdx CSR indeksi susjeda
+     * @param weights Nenegativne težine bridova
+     * @param required Vrhovi koje šetnja mora posjetiti; null = svi vrhovi
+     */
+    public static SparseGraph fromCsr(int numVertices, int[] rowPtr, int[] colIdx, double[] weights, int[] required) {
+        return fromCsr(numVertices, rowPtr, colIdx, weights, required, DistanceMatrix.Storage.FLAT);
+    }
+
+    /**
+     * @param storage Format zatvorenja; SYMMETRIC za neusmjerene mreže
+     */
+    public static SparseGraph fromCsr(int numVertices, int[] rowPtr, int[] colIdx, double[] weights, int[] required,
+                                      DistanceMatrix.Storage storage) {
+        if (rowPtr.length != numVertices + 1) {
+            throw new IllegalArgumentException("rowPtr must have numVertices + 1 entries");
+        }
+        if (required == null) {
+            required = IntStream.range(0, numVertices).toArray();
+        }
+        double[][] closure = closure(numVertices, rowPtr, colIdx, weights, required);
+        return new SparseGraph(rowPtr, colIdx, weights, required, closure, storage);
+    }
+
+    /**
+     * Gradi CSR iz liste bridova (from[e], to[e], weight[e]).
+     */
+    public static SparseGraph fromEdges(int numVertices, int[] from, int[] to, double[] weight,
+                                        boolean undirected, int[] required) {
+        int m = from.length;
+        int arcs = undirected ? 2 * m : m;
+
+        int[] rowPtr = new int[numVertices + 1];
+        for (int e = 0; e < m; e++) {
+            rowPtr[from[e] + 1]++;
+            if (undirected) rowPtr[to[e] + 1]++;
+        }
+        for (int v = 0; v < numVertices; v++) {
+            rowPtr[v + 1] += rowPtr[v];
+        }
+
+        int[] colIdx = new int[arcs];
+        double[] weights = new double[arcs];
+        int[] fill = Arrays.copyOf(rowPtr, numVertices);
+        for (int e = 0; e < m; e++) {
+            int pos = fill[from[e]]++;
+            colIdx[pos] = to[e];
+            weights[pos] = weight[e];
+            if (undirected) {
+                pos = fill[to[e]]++;
+                colIdx[pos] = from[e];
+                weights[pos] = weight[e];
+            }
+        }
+        return fromCsr(numVertices, rowPtr, colIdx, weights, required,
+                undirected ? DistanceMatrix.Storage.SYMMETRIC : DistanceMatrix.Storage.FLAT);
+    }
+
+    /**
+     * Bridovi zatvorenja su najkraći putevi mreže, ne stvarni bridovi - promjena
+     * težine brida mreže zahtijeva novi {@link #fromCsr}.
+     */
+    @Override
+    public void updateEdge(int u, int v, double w) {
+        throw new UnsupportedOperationException("SparseGraph closure edges cannot be updated; rebuild from the network");
+    }
+
+    /**
+     * Broj vrhova originalne mreže.
+     */
+    public int networkSize() {
+        return rowPtr.length - 1;
+    }
+
+    /**
+     * Vrh originalne mreže koji odgovara indeksu u zatvorenju.
+     */
+    public int toNetwork(int v) {
+        return required[v];
+    }
+
+    /**
+     * Pretvara šetnju nad obaveznim vrhovima (indeksi zatvorenja) u šetnju
+     * po bridovima originalne mreže (indeksi mreže).
+     */
+    public List<Integer> expandToNetwork(List<Integer> sequence) {
+        List<Integer> walk = new ArrayList<>();
+        if (sequence.isEmpty()) return walk;
+
+        walk.add(required[sequence.get(0)]);
+        List<Integer> segment = new ArrayList<>();
+        for (int i = 0; i < sequence.size() - 1; i++) {
+            int from = sequence.get(i);
+            int to = sequence.get(i + 1);
+            if (from == to) continue;
+
+            int[] pred = predecessors[from].get();
+            int target = required[to];
+            int source = required[from];
+            if (target != source && pred[target] < 0) {
+                throw new IllegalStateException("No path from " + source + " to " + target);
+            }
+
+            // Stablo prethodnika daje put unatrag
+            segment.clear();
+            for (int v = target; v != source; v = pred[v]) {
+                segment.add(v);
+            }
+            for (int j = segment.size() - 1; j >= 0; j--) {
+                walk.add(segment.get(j));
+            }
+        }
+        return walk;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Lazy<int[]>[] newPredecessors(int k) {
+        Lazy<int[]>[] preds = new Lazy[k];
+        for (int s = 0; s < k; s++) {
+            final int source = required[s];
+            preds[s] = new Lazy<>(() -> {
+                int[] pred = new int[networkSize()];
+                dijkstra(networkSize(), rowPtr, colIdx, weights, source, pred, null);
+                return pred;
+            });
+        }
+        return preds;
+    }
+
+    private static double[][] closure(int numVertices, int[] rowPtr, int[] colIdx, double[] weights, int[] required) {
+        int k = required.length;
+        int[] terminalIndex = new int[numVertices];
+        Arrays.fill(terminalIndex, -1);
+        for (int i = 0; i < k; i++) {
+            terminalIndex[required[i]] = i;
+        }
+
+        double[][] closure = new double[k][];
+        IntStream.range(0, k).parallel().forEach(s -> {
+            double[] dist = dijkstra(numVertices, rowPtr, colIdx, weights, required[s], null, terminalIndex);
+            double[] row = new double[k];
+            for (int t = 0; t < k; t++) {
+                row[t] = dist[required[t]];
+            }
+            closure[s] = row;
+        });
+        return closure;
+    }
+
+    /**
+     * Dijkstra s primitivnom binarnom hrpom (lazy brisanje zastarjelih unosa).
+     * Ako je terminalIndex zadan, staje čim su svi obavezni vrhovi konačni.
+     */
+    private static double[] dijkstra(int numVertices, int[] rowPtr, int[] colIdx, double[] weights,
+                                     int source, int[] pred, int[] terminalIndex) {
+        double[] dist = new double[numVertices];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        if (pred != null) Arrays.fill(pred, -1);
+        boolean[] settled = new boolean[numVertices];
+
+        int remaining = Integer.MAX_VALUE;
+        if (terminalIndex != null) {
+            remaining = 0;
+            for (int v = 0; v < numVertices; v++) {
+                if (terminalIndex[v] >= 0) remaining++;
+            }
+        }
+
+        MinHeap heap = new MinHeap(Math.max(16, numVertices / 4));
+        dist[source] = 0;
+        heap.push(source, 0);
+
+        while (!heap.isEmpty()) {
+            double d = heap.peekKey();
+            int u = heap.pop();
+            if (settled[u] || d > dist[u]) continue;
+            settled[u] = true;
+
+            if (terminalIndex != null && terminalIndex[u] >= 0 && --remaining == 0) break;
+
+            for (int e = rowPtr[u]; e < rowPtr[u + 1]; e++) {
+                int v = colIdx[e];
+                double alt = d + weights[e];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    if (pred != null) pred[v] = u;
+                    heap.push(v, alt);
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Binarna min-hrpa nad parovima (double ključ, int vrh) bez boxinga
+    private static final class MinHeap {
+        private double[] keys;
+        private int[] values;
+        private int size;
+
+        MinHeap(int capacity) {
+            keys = new double[capacity];
+            values = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(int value, double key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int top = values[0];
+            size--;
+            if (size > 0) {
+                double key = keys[size];
+                int value = values[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                    if (key <= keys[child]) break;
+                    keys[i] = keys[child];
+                    values[i] = values[child];
+                    i = child;
+                }
+                keys[i] = key;
+                values[i] = value;
+            }
+            return top;
+        }
+    }
+}
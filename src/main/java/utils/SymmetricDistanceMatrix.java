@@ -0,0 +1,117 @@
+package utils;
+
+import java.util.stream.IntStream;
+
+/**
+ * Simetrična matrica spremljena kao gornji trokut (s dijagonalom), redak po redak:
+ * n(n+1)/2 elemenata umjesto n^2. Svi generatori u GraphGenerator daju simetrične matrice.
+ */
+public final class SymmetricDistanceMatrix implements DistanceMatrix {
+
+    private final double[] data;
+    private final int n;
+
+    // data je gornji trokut duljine n(n+1)/2, ne kopira se
+    SymmetricDistanceMatrix(double[] data, int n) {
+        if (data.length != packedLength(n)) {
+            throw new IllegalArgumentException("Expected " + packedLength(n) + " entries, got " + data.length);
+        }
+        this.data = data;
+        this.n = n;
+    }
+
+    public static SymmetricDistanceMatrix of(double[][] m) {
+        int n = m.length;
+        double[] data = new double[packedLength(n)];
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                data[idx++] = m[i][j];
+            }
+        }
+        return new SymmetricDistanceMatrix(data, n);
+    }
+
+    static SymmetricDistanceMatrix fromFlat(double[] flat, int n) {
+        double[] data = new double[packedLength(n)];
+        int idx = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                data[idx++] = flat[i * n + j];
+            }
+        }
+        return new SymmetricDistanceMatrix(data, n);
+    }
+
+    /**
+     * Floyd-Warshall direktno nad gornjim trokutom, bez pune n x n matrice.
+     * Redak k se prije koraka k kopira u polje od n elemenata (u koraku k se ne
+     * mijenja), pa je unutarnja petlja kontinuirana; retci se obrađuju paralelno.
+     * @param weights Težine bridova (ne mijenjaju se)
+     */
+    static SymmetricDistanceMatrix shortestPaths(SymmetricDistanceMatrix weights) {
+        SymmetricDistanceMatrix m = new SymmetricDistanceMatrix(weights.data.clone(), weights.n);
+        int n = m.n;
+        double[] rowK = new double[n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                rowK[j] = m.get(k, j);
+            }
+            final int kk = k;
+            IntStream rows = IntStream.range(0, n);
+            (n >= Graph.BLOCKED_FW_THRESHOLD ? rows.parallel() : rows).forEach(i -> m.relaxRow(i, kk, rowK));
+        }
+        return m;
+    }
+
+    // (i, j) za j >= i preko k; dretva retka i piše samo svoj dio gornjeg trokuta
+    private void relaxRow(int i, int k, double[] rowK) {
+        double dik = rowK[i];
+        if (dik == Double.POSITIVE_INFINITY) return;
+        int base = index(i, i) - i;
+        for (int j = i; j < n; j++) {
+            double alt = dik + rowK[j];
+            if (alt < data[base + j]) {
+                data[base + j] = alt;
+            }
+        }
+    }
+
+    static int packedLength(int n) {
+        long len = (long) n * (n + 1) / 2;
+        if (len > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix too large for packed storage: n = " + n);
+        }
+        return (int) len;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    // Interno polje (bez kopiranja), za GraphCache
+    double[] data() {
+        return data;
+    }
+
+    // Postavlja (i, j) i (j, i) - matrica je simetrična
+    void set(int i, int j, double value) {
+        data[index(i, j)] = value;
+    }
+
+    private int index(int i, int j) {
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        // početak retka i u gornjem trokutu: i*n - i*(i-1)/2
+        return (int) ((long) i * n - (((long) i * (i - 1)) >>> 1)) + (j - i);
+    }
+}